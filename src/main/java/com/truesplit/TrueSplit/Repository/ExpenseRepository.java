@@ -25,6 +25,4 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
 
     @Query("{ '$or': [ { 'createdBy': ?0 }, { 'participants': ?0 } ], 'status': { '$in': ?1 } }")
     Page<Expense> findByUserIdAndStatusIn(String userId, List<String> statuses, Pageable pageable);
-
-    boolean existsByTitleSlug(String titleSlug);
 }
\ No newline at end of file
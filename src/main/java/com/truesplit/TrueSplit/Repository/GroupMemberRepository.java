@@ -3,6 +3,7 @@ package com.truesplit.TrueSplit.Repository;
 
 import com.truesplit.TrueSplit.model.GroupMember;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,8 @@ public interface GroupMemberRepository extends MongoRepository<GroupMember, Stri
     List<GroupMember> findByGroupId(String groupId);
     Optional<GroupMember> findByGroupIdAndUserId(String groupId, String userId);
     List<GroupMember> findByUserId(String userId);
+    List<GroupMember> findByGroupIdIn(Collection<String> groupIds);
+    List<GroupMember> findByGroupIdAndUserIdIn(String groupId, Collection<String> userIds);
     boolean existsByGroupIdAndUserId(String groupId, String userId);
     void deleteByGroupIdAndUserId(String groupId, String userId);
 }
@@ -3,7 +3,6 @@ package com.truesplit.TrueSplit.Repository;
 import com.truesplit.TrueSplit.model.Otp;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.time.Instant;
 import java.util.Optional;
 
 public interface OtpRepository extends MongoRepository<Otp, String> {
@@ -11,6 +10,4 @@ public interface OtpRepository extends MongoRepository<Otp, String> {
     void deleteByEmail(String email);
 
     Optional<Otp> findByEmail(String email);
-
-    long deleteByVerifiedFalseAndExpiresAtBefore(Instant now);
 }
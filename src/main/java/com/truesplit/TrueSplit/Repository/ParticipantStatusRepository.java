@@ -2,11 +2,13 @@ package com.truesplit.TrueSplit.Repository;
 
 import com.truesplit.TrueSplit.model.ParticipantStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ParticipantStatusRepository extends MongoRepository<ParticipantStatus, String> {
     List<ParticipantStatus> findByExpenseId(String expenseId);
+    List<ParticipantStatus> findByExpenseIdIn(Collection<String> expenseIds);
     Optional<ParticipantStatus> findByExpenseIdAndUserId(String expenseId, String userId);
     List<ParticipantStatus> findByExpenseIdAndStatus(String expenseId, String status);
     void deleteByExpenseId(String expenseId);
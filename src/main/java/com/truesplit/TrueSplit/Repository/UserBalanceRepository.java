@@ -0,0 +1,10 @@
+package com.truesplit.TrueSplit.Repository;
+
+import com.truesplit.TrueSplit.model.UserBalance;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface UserBalanceRepository extends MongoRepository<UserBalance, String> {
+    List<UserBalance> findByUserId(String userId);
+}
@@ -2,8 +2,8 @@ package com.truesplit.TrueSplit.Repository;
 
 import com.truesplit.TrueSplit.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +13,5 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Boolean existsByEmail(String email);
 
-    @Query("{ 'name': { '$regex': ?0, '$options': 'i' } }")
-    List<User> findByNameContainingIgnoreCase(String name);
+    List<User> findByEmailIn(Collection<String> emails);
 }
\ No newline at end of file
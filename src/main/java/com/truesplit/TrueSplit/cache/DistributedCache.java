@@ -0,0 +1,19 @@
+package com.truesplit.TrueSplit.cache;
+
+import java.util.Map;
+
+/**
+ * Shared second-level cache behind the in-process caches. Values must survive a round trip through
+ * whatever the implementation stores them as, so callers only put plain DTOs and strings.
+ * {@link LocalDistributedCache} stands in when no shared store is configured.
+ */
+public interface DistributedCache {
+
+    <T> T get(String key, Class<T> type);
+
+    void put(String key, Object value, long ttlMillis);
+
+    void evict(String key);
+
+    Map<String, Object> stats();
+}
@@ -0,0 +1,47 @@
+package com.truesplit.TrueSplit.cache;
+
+import java.util.Map;
+
+/**
+ * In-process stand-in for a shared cache, for single-instance deployments and tests. With
+ * {@code enabled = false} every read misses and writes are dropped, so only the L1 tier is used.
+ */
+public class LocalDistributedCache implements DistributedCache {
+
+    private final boolean enabled;
+    private final BoundedTtlCache<String, Object> store;
+
+    public LocalDistributedCache(boolean enabled, int maxSize, long ttlMillis) {
+        this.enabled = enabled;
+        this.store = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        if (!enabled) {
+            return null;
+        }
+        Object value = store.getIfPresent(key);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    // Entries share the TTL given at construction
+    @Override
+    public void put(String key, Object value, long ttlMillis) {
+        if (enabled) {
+            store.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(String key) {
+        if (enabled) {
+            store.invalidate(key);
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return enabled ? store.stats() : Map.of("enabled", false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.truesplit.TrueSplit.config;
+
+import com.truesplit.TrueSplit.cache.DistributedCache;
+import com.truesplit.TrueSplit.cache.LocalDistributedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // A shared-store bean (e.g. Redis) defined elsewhere takes precedence over the local stand-in
+    @Bean
+    @ConditionalOnMissingBean(DistributedCache.class)
+    public DistributedCache distributedCache(@Value("${cache.l2.local-enabled:false}") boolean enabled,
+                                             @Value("${cache.l2.max-size:50000}") int maxSize,
+                                             @Value("${cache.l2.ttl-seconds:300}") long ttlSeconds) {
+        return new LocalDistributedCache(enabled, maxSize, ttlSeconds * 1000);
+    }
+}
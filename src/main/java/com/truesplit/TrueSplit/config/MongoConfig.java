@@ -0,0 +1,62 @@
+package com.truesplit.TrueSplit.config;
+
+import com.truesplit.TrueSplit.model.Money;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new MoneyWriter(), new MoneyReader()));
+    }
+
+    /**
+     * Transactions for expense writes, so a state change, its ledger rows and its outbox events
+     * commit together. Deliberately not a transaction manager bean: one would also turn the
+     * existing {@code @Transactional} annotations into real transactions, and the group flows rely
+     * on a duplicate-key error leaving the rest of their writes in place.
+     * Needs a replica set; {@code expense.transactions.enabled=false} runs against a standalone server
+     * without the guarantee.
+     */
+    @Bean
+    public TransactionOperations expenseTransactions(MongoDatabaseFactory databaseFactory,
+                                                     @Value("${expense.transactions.enabled:true}") boolean enabled) {
+        return enabled
+                ? new TransactionTemplate(new MongoTransactionManager(databaseFactory))
+                : TransactionOperations.withoutTransaction();
+    }
+
+    // {minor, currency} keeps amounts exact and lets ledgers $inc the minor field directly
+    @WritingConverter
+    static class MoneyWriter implements Converter<Money, Document> {
+        @Override
+        public Document convert(Money source) {
+            return new Document("minor", source.getMinor()).append("currency", source.getCurrency());
+        }
+    }
+
+    @ReadingConverter
+    static class MoneyReader implements Converter<Document, Money> {
+        @Override
+        public Money convert(Document source) {
+            Number minor = (Number) source.get("minor");
+            String currency = source.getString("currency");
+            return Money.ofMinor(minor != null ? minor.longValue() : 0L,
+                    currency != null ? currency : Money.DEFAULT_CURRENCY);
+        }
+    }
+}
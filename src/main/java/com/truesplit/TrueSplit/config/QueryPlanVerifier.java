@@ -0,0 +1,166 @@
+package com.truesplit.TrueSplit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@code explain()} on every hot query shape at startup and reports any that fall back to a
+ * collection scan, along with any collection missing the TTL index it relies on for cleanup.
+ * {@code mongo.query-plan-check} selects {@code off}, {@code warn} or {@code fail}; in {@code fail}
+ * mode a shape or collection that could not be checked fails startup too.
+ */
+@Component
+@Slf4j
+public class QueryPlanVerifier implements ApplicationRunner {
+
+    private static final String SAMPLE_ID = "000000000000000000000000";
+
+    private final MongoTemplate mongoTemplate;
+    private final String mode;
+
+    public QueryPlanVerifier(MongoTemplate mongoTemplate, @Value("${mongo.query-plan-check:warn}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = mode;
+    }
+
+    static List<QueryShape> shapes() {
+        List<QueryShape> shapes = new ArrayList<>();
+        shapes.add(new QueryShape("expenses.listByUser", "expenses",
+                Document.parse("{ '$or': [ { 'createdBy': '" + SAMPLE_ID + "' }, { 'participants': '" + SAMPLE_ID + "' } ],"
+                        + " 'status': { '$in': ['PENDING', 'ACTIVE', 'SETTLED', 'CANCELLED'] } }"),
+                Document.parse("{ 'expenseDateTime': -1, '_id': -1 }")));
+        shapes.add(new QueryShape("expenses.byGroup", "expenses",
+                Document.parse("{ 'groupId': '" + SAMPLE_ID + "', 'status': { '$in': ['PENDING', 'ACTIVE'] } }"),
+                Document.parse("{ 'expenseDateTime': -1, '_id': -1 }")));
+        shapes.add(new QueryShape("expenses.bySlug", "expenses",
+                Document.parse("{ 'titleSlug': 'sample-slug' }"), null));
+        shapes.add(new QueryShape("participantStatuses.byExpenses", "participant_statuses",
+                Document.parse("{ 'expenseId': { '$in': ['" + SAMPLE_ID + "'] } }"), null));
+        shapes.add(new QueryShape("userBalances.byUser", "user_balances",
+                Document.parse("{ 'userId': '" + SAMPLE_ID + "' }"), null));
+        shapes.add(new QueryShape("groups.byOwner", "groups",
+                Document.parse("{ 'ownerId': '" + SAMPLE_ID + "' }"), null));
+        shapes.add(new QueryShape("groupMembers.byUser", "group_members",
+                Document.parse("{ 'userId': '" + SAMPLE_ID + "' }"), null));
+        shapes.add(new QueryShape("groupMembers.byGroups", "group_members",
+                Document.parse("{ 'groupId': { '$in': ['" + SAMPLE_ID + "'] } }"), null));
+        shapes.add(new QueryShape("userTimeline.recent", "user_timeline",
+                Document.parse("{ 'userId': '" + SAMPLE_ID + "' }"),
+                Document.parse("{ 'time': -1 }")));
+        shapes.add(new QueryShape("outbox.due", "outbox",
+                Document.parse("{ 'status': 'PENDING', 'availableAt': { '$lte': { '$date': 0 } } }"),
+                Document.parse("{ 'availableAt': 1 }")));
+        shapes.add(new QueryShape("emailQueue.due", "email_queue",
+                Document.parse("{ 'status': 'PENDING', 'availableAt': { '$lte': { '$date': 0 } } }"),
+                Document.parse("{ 'priority': 1, 'availableAt': 1 }")));
+        shapes.add(new QueryShape("notifications.unread", "notifications",
+                Document.parse("{ 'userId': '" + SAMPLE_ID + "', 'read': false }"),
+                Document.parse("{ 'createdAt': -1 }")));
+        shapes.add(new QueryShape("notifications.byUser", "notifications",
+                Document.parse("{ 'userId': '" + SAMPLE_ID + "' }"),
+                Document.parse("{ 'createdAt': -1 }")));
+        shapes.add(new QueryShape("refreshTokens.byHash", "refresh_tokens",
+                Document.parse("{ 'tokenHash': 'sample-hash' }"), null));
+        shapes.add(new QueryShape("otps.byEmail", "ops",
+                Document.parse("{ 'email': 'sample@truesplit.local' }"), null));
+        shapes.add(new QueryShape("users.byEmail", "users",
+                Document.parse("{ 'email': 'sample@truesplit.local' }"), null));
+        return shapes;
+    }
+
+    // Collections that expire their own documents, as collection -> date field
+    static Map<String, String> ttlIndexes() {
+        return Map.of("ops", "expiresAt", "refresh_tokens", "expiresAt", "otp_quotas", "expiresAt");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> collectionScans = new ArrayList<>();
+        List<String> unverified = new ArrayList<>();
+        for (QueryShape shape : shapes()) {
+            try {
+                var find = mongoTemplate.getCollection(shape.collection).find(shape.filter).limit(20);
+                if (shape.sort != null) {
+                    find = find.sort(shape.sort);
+                }
+                Document plan = find.explain();
+                Object winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan");
+                if (containsStage(winningPlan, "COLLSCAN")) {
+                    collectionScans.add(shape.name);
+                }
+            } catch (Exception ex) {
+                log.warn("[QUERY PLAN] Could not explain {}: {}", shape.name, ex.getMessage());
+                unverified.add(shape.name);
+            }
+        }
+
+        List<String> missingTtl = new ArrayList<>();
+        ttlIndexes().forEach((collection, field) -> {
+            try {
+                boolean present = mongoTemplate.indexOps(collection).getIndexInfo().stream()
+                        .anyMatch(index -> index.getExpireAfter().isPresent() && index.isIndexForFields(List.of(field)));
+                if (!present) {
+                    missingTtl.add(collection + "." + field);
+                }
+            } catch (Exception ex) {
+                log.warn("[QUERY PLAN] Could not list indexes on {}: {}", collection, ex.getMessage());
+                unverified.add(collection + "." + field);
+            }
+        });
+
+        if (collectionScans.isEmpty() && missingTtl.isEmpty() && unverified.isEmpty()) {
+            log.info("[QUERY PLAN] All {} registered query shapes use an index; {} TTL indexes present",
+                    shapes().size(), ttlIndexes().size());
+            return;
+        }
+        String message = "Query shapes falling back to COLLSCAN: " + collectionScans
+                + ", missing TTL indexes: " + missingTtl + ", could not verify: " + unverified;
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        log.warn("[QUERY PLAN] {}", message);
+    }
+
+    private boolean containsStage(Object node, String stage) {
+        if (node instanceof Document doc) {
+            if (stage.equals(doc.get("stage"))) {
+                return true;
+            }
+            for (Object value : doc.values()) {
+                if (containsStage(value, stage)) return true;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                if (containsStage(value, stage)) return true;
+            }
+        }
+        return false;
+    }
+
+    static final class QueryShape {
+        private final String name;
+        private final String collection;
+        private final Document filter;
+        private final Document sort;
+
+        QueryShape(String name, String collection, Document filter, Document sort) {
+            this.name = name;
+            this.collection = collection;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
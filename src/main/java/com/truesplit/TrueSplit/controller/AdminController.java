@@ -0,0 +1,57 @@
+package com.truesplit.TrueSplit.controller;
+
+import com.truesplit.TrueSplit.dto.response.ApiResponse;
+import com.truesplit.TrueSplit.security.PrincipalCache;
+import com.truesplit.TrueSplit.service.ConflictRetryExecutor;
+import com.truesplit.TrueSplit.service.ExpenseCache;
+import com.truesplit.TrueSplit.service.ExpenseIdentifierRouter;
+import com.truesplit.TrueSplit.service.notification.EmailDispatcher;
+import com.truesplit.TrueSplit.service.outbox.OutboxDispatcher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final PrincipalCache principalCache;
+    private final ConflictRetryExecutor conflictRetry;
+    private final ExpenseCache expenseCache;
+    private final ExpenseIdentifierRouter identifierRouter;
+    private final OutboxDispatcher outboxDispatcher;
+    private final EmailDispatcher emailDispatcher;
+
+    public AdminController(PrincipalCache principalCache, ConflictRetryExecutor conflictRetry,
+                           ExpenseCache expenseCache, ExpenseIdentifierRouter identifierRouter,
+                           OutboxDispatcher outboxDispatcher, EmailDispatcher emailDispatcher) {
+        this.principalCache = principalCache;
+        this.conflictRetry = conflictRetry;
+        this.expenseCache = expenseCache;
+        this.identifierRouter = identifierRouter;
+        this.outboxDispatcher = outboxDispatcher;
+        this.emailDispatcher = emailDispatcher;
+    }
+
+    /**
+     * Internal statistics for caches, retries, the slug filter, the outbox and outgoing mail.
+     * Restricted to {@code ROLE_ADMIN} in {@code SecurityConfig}.
+     * @return ApiResponse with one stats map per component
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("principalCache", principalCache.stats());
+        stats.put("conflicts", conflictRetry.stats());
+        stats.put("expenseCache", expenseCache.stats());
+        stats.put("slugFilter", identifierRouter.stats());
+        stats.put("outbox", outboxDispatcher.stats());
+        stats.put("email", emailDispatcher.stats());
+
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+}
@@ -0,0 +1,24 @@
+package com.truesplit.TrueSplit.controller;
+
+import com.truesplit.TrueSplit.dto.response.ApiResponse;
+import com.truesplit.TrueSplit.dto.response.BalanceSummaryResponse;
+import com.truesplit.TrueSplit.security.CurrentUserId;
+import com.truesplit.TrueSplit.service.BalanceLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/balances")
+@RequiredArgsConstructor
+public class BalanceController {
+
+    private final BalanceLedgerService balanceLedgerService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<BalanceSummaryResponse>> getBalances(@CurrentUserId String userId) {
+        return ResponseEntity.ok(ApiResponse.success(balanceLedgerService.getSummary(userId)));
+    }
+}
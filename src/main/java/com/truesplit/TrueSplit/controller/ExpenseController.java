@@ -1,13 +1,13 @@
 package com.truesplit.TrueSplit.controller;
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.dto.request.CreateExpenseRequest;
 import com.truesplit.TrueSplit.dto.request.ParticipantActionDto;
 import com.truesplit.TrueSplit.dto.response.ApiResponse;
+import com.truesplit.TrueSplit.dto.response.CursorPageResponse;
 import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
 import com.truesplit.TrueSplit.dto.response.RecentExpenseResponse;
-import com.truesplit.TrueSplit.exception.NotFoundException;
 import com.truesplit.TrueSplit.model.ParticipantStatus;
+import com.truesplit.TrueSplit.security.CurrentUserId;
 import com.truesplit.TrueSplit.service.ExpenseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +17,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/expenses")
@@ -28,24 +28,21 @@ import java.util.List;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
-    private final UserRepository userRepository;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ExpenseResponse>> createExpense(
             @Valid @RequestBody CreateExpenseRequest request,
-            Authentication authentication) {
+            @CurrentUserId String userId) {
 
-        String currentUserEmail = authentication.getName();
-        ExpenseResponse expense = expenseService.createExpense(request, currentUserEmail);
+        ExpenseResponse expense = expenseService.createExpense(request, userId);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(expense));
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<ApiResponse<List<RecentExpenseResponse>>> getRecentExpenses(Authentication authentication) {
-        String currentUserEmail = authentication.getName();
-        return ResponseEntity.ok(ApiResponse.success(expenseService.getRecentExpenses(currentUserEmail)));
+    public ResponseEntity<ApiResponse<List<RecentExpenseResponse>>> getRecentExpenses(@CurrentUserId String userId) {
+        return ResponseEntity.ok(ApiResponse.success(expenseService.getRecentExpenses(userId)));
     }
 
     @GetMapping
@@ -54,18 +51,39 @@ public class ExpenseController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String search,
-            Authentication authentication) {
+            @CurrentUserId String userId) {
 
-        String userId = getUserId(authentication);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "expenseDateTime"));
         Page<ExpenseResponse> expensePage = expenseService.getUserExpenses(userId, pageable, status, search);
         return ResponseEntity.ok(ApiResponse.success(expensePage));
     }
 
+    @GetMapping(params = "pagination=cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ExpenseResponse>>> getExpensesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @CurrentUserId String userId) {
+
+        CursorPageResponse<ExpenseResponse> expensePage =
+                expenseService.getUserExpensesByCursor(userId, cursor, size, status, search);
+        return ResponseEntity.ok(ApiResponse.success(expensePage));
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countExpenses(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @CurrentUserId String userId) {
+
+        long total = expenseService.countUserExpenses(userId, status, search);
+        return ResponseEntity.ok(ApiResponse.success(Map.of("total", total)));
+    }
+
     @GetMapping("/{identifier}")
     public ResponseEntity<ApiResponse<ExpenseResponse>> getExpense(
-            @PathVariable String identifier,
-            Authentication authentication) {
+            @PathVariable String identifier) {
 
         ExpenseResponse expense = expenseService.getExpense(identifier);
         return ResponseEntity.ok(ApiResponse.success(expense));
@@ -75,8 +93,7 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<ParticipantStatus>> handleParticipantAction(
             @PathVariable String expenseId,
             @Valid @RequestBody ParticipantActionDto dto,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         ParticipantStatus status = expenseService.handleParticipantAction(expenseId, userId, dto);
         return ResponseEntity.ok(ApiResponse.success(status));
     }
@@ -84,8 +101,7 @@ public class ExpenseController {
     @PostMapping("/{expenseId}/settle")
     public ResponseEntity<ApiResponse<Void>> settleExpense(
             @PathVariable String expenseId,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         expenseService.settleExpense(expenseId, userId);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
@@ -93,8 +109,7 @@ public class ExpenseController {
     @PatchMapping("/{expenseId}/cancel")
     public ResponseEntity<ApiResponse<Void>> cancelExpense(
             @PathVariable String expenseId,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         expenseService.cancelExpense(expenseId, userId);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
@@ -103,8 +118,7 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<Void>> requestPayment(
             @PathVariable String expenseId,
             @PathVariable String userId,
-            Authentication auth) {
-        String currentUserId = getUserId(auth);
+            @CurrentUserId String currentUserId) {
         if (!currentUserId.equals(userId)) {
             throw new SecurityException("You can only request payment for yourself.");
         }
@@ -116,8 +130,7 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<Void>> approvePayment(
             @PathVariable String expenseId,
             @PathVariable String userId,
-            Authentication auth) {
-        String payerId = getUserId(auth);
+            @CurrentUserId String payerId) {
         expenseService.approvePayment(expenseId, payerId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -126,8 +139,7 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<Void>> rejectPayment(
             @PathVariable String expenseId,
             @PathVariable String userId,
-            Authentication auth) {
-        String payerId = getUserId(auth);
+            @CurrentUserId String payerId) {
         expenseService.rejectPayment(expenseId, payerId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -135,8 +147,7 @@ public class ExpenseController {
     @PostMapping("/{expenseId}/participants/approve-all")
     public ResponseEntity<ApiResponse<Void>> approveAllPayments(
             @PathVariable String expenseId,
-            Authentication auth) {
-        String payerId = getUserId(auth);
+            @CurrentUserId String payerId) {
         expenseService.approveAllPayments(expenseId, payerId);
         return ResponseEntity.noContent().build();
     }
@@ -145,19 +156,11 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<Void>> cancelPaymentRequest(
             @PathVariable String expenseId,
             @PathVariable String userId,
-            Authentication auth) {
-        String currentUserId = getUserId(auth);
+            @CurrentUserId String currentUserId) {
         if (!currentUserId.equals(userId)) {
             throw new SecurityException("You can only cancel your own payment request.");
         }
         expenseService.cancelPaymentRequest(expenseId, userId);
         return ResponseEntity.noContent().build();
     }
-
-    private String getUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"))
-                .getId();
-    }
 }
\ No newline at end of file
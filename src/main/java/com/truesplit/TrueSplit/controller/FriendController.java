@@ -1,14 +1,13 @@
 package com.truesplit.TrueSplit.controller;
 
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.dto.request.FriendActionDto;
 import com.truesplit.TrueSplit.dto.request.FriendRequestDto;
 import com.truesplit.TrueSplit.dto.request.FriendResponse;
 import com.truesplit.TrueSplit.dto.response.ApiResponse;
 
-import com.truesplit.TrueSplit.exception.NotFoundException;
 import com.truesplit.TrueSplit.model.FriendRequest;
+import com.truesplit.TrueSplit.security.CurrentUserId;
 import com.truesplit.TrueSplit.service.FriendService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,13 +24,12 @@ import java.util.List;
 public class FriendController {
 
     private final FriendService friendService;
-    private final UserRepository userRepository;
 
     @PostMapping("/requests")
     public ResponseEntity<ApiResponse<FriendRequest>> sendFriendRequest(
             @Valid @RequestBody FriendRequestDto dto,
+            @CurrentUserId String userId,
             Authentication auth) {
-        String userId = getUserId(auth);
         String emailAddress = auth.getName();
         FriendRequest request = friendService.sendFriendRequest(userId, emailAddress, dto);
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -42,8 +40,7 @@ public class FriendController {
     public ResponseEntity<ApiResponse<FriendRequest>> handleFriendRequest(
             @PathVariable String requestId,
             @Valid @RequestBody FriendActionDto dto,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         FriendRequest request;
         if ("ACCEPT".equalsIgnoreCase(dto.getAction())) {
             request = friendService.acceptFriendRequest(requestId, userId);
@@ -54,23 +51,14 @@ public class FriendController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<FriendResponse>>> getFriends(Authentication auth) {
-        String userId = getUserId(auth);
+    public ResponseEntity<ApiResponse<List<FriendResponse>>> getFriends(@CurrentUserId String userId) {
         List<FriendResponse> friends = friendService.getFriends(userId);
         return ResponseEntity.ok(ApiResponse.success(friends));
     }
 
     @GetMapping("/requests/pending")
-    public ResponseEntity<ApiResponse<List<FriendRequest>>> getPendingRequests(Authentication auth) {
-        String userId = getUserId(auth);
+    public ResponseEntity<ApiResponse<List<FriendRequest>>> getPendingRequests(@CurrentUserId String userId) {
         List<FriendRequest> pending = friendService.getPendingRequestsForUser(userId);
         return ResponseEntity.ok(ApiResponse.success(pending));
     }
-
-    private String getUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"))
-                .getId();
-    }
 }
@@ -1,20 +1,27 @@
 package com.truesplit.TrueSplit.controller;
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.dto.request.AccessActionDto;
 import com.truesplit.TrueSplit.dto.request.AddGroupMembersRequest;
 import com.truesplit.TrueSplit.dto.request.CreateGroupRequest;
 import com.truesplit.TrueSplit.dto.request.GroupResponse;
 import com.truesplit.TrueSplit.dto.response.ApiResponse;
-import com.truesplit.TrueSplit.exception.NotFoundException;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import com.truesplit.TrueSplit.dto.response.GroupBalanceResponse;
+import com.truesplit.TrueSplit.dto.response.SettlementPlanResponse;
 import com.truesplit.TrueSplit.model.AccessRequest;
 import com.truesplit.TrueSplit.model.Group;
+import com.truesplit.TrueSplit.security.CurrentUserId;
+import com.truesplit.TrueSplit.service.ExpenseService;
 import com.truesplit.TrueSplit.service.GroupService;
+import com.truesplit.TrueSplit.service.SettlementPlanService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,13 +32,13 @@ import java.util.List;
 public class GroupController {
 
     private final GroupService groupService;
-    private final UserRepository userRepository;
+    private final SettlementPlanService settlementPlanService;
+    private final ExpenseService expenseService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<Group>> createGroup(
             @Valid @RequestBody CreateGroupRequest dto,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         Group group = groupService.createGroup(userId, dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(group));
     }
@@ -40,8 +47,7 @@ public class GroupController {
     public ResponseEntity<ApiResponse<Void>> addMembers(
             @PathVariable String groupId,
             @Valid @RequestBody AddGroupMembersRequest dto,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         groupService.addMembers(groupId, userId, dto.getEmails());
         return ResponseEntity.ok(ApiResponse.success(null));
     }
@@ -50,8 +56,7 @@ public class GroupController {
     public ResponseEntity<ApiResponse<Void>> removeMember(
             @PathVariable String groupId,
             @PathVariable String memberId,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         groupService.removeMember(groupId, userId, memberId);
         return ResponseEntity.ok(ApiResponse.success(null));
     }
@@ -59,8 +64,7 @@ public class GroupController {
     @PostMapping("/{groupId}/access-requests")
     public ResponseEntity<ApiResponse<AccessRequest>> requestAccess(
             @PathVariable String groupId,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         AccessRequest request = groupService.requestAccess(groupId, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(request));
     }
@@ -70,23 +74,43 @@ public class GroupController {
             @PathVariable String groupId,
             @PathVariable String requestId,
             @Valid @RequestBody AccessActionDto dto,
-            Authentication auth) {
-        String userId = getUserId(auth);
+            @CurrentUserId String userId) {
         AccessRequest request = groupService.handleAccessRequest(groupId, requestId, userId, dto.getAction());
         return ResponseEntity.ok(ApiResponse.success(request));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<GroupService.GroupListResponse>> getUserGroups(Authentication auth) {
-        String userId = getUserId(auth);
+    public ResponseEntity<ApiResponse<GroupService.GroupListResponse>> getUserGroups(@CurrentUserId String userId) {
         GroupService.GroupListResponse groups = groupService.getUserGroups(userId);
         return ResponseEntity.ok(ApiResponse.success(groups));
     }
 
-    private String getUserId(Authentication auth) {
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"))
-                .getId();
+    @GetMapping("/{groupId}/expenses")
+    public ResponseEntity<ApiResponse<Page<ExpenseResponse>>> getGroupExpenses(
+            @PathVariable String groupId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String status,
+            @CurrentUserId String userId) {
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.DESC, "expenseDateTime").and(Sort.by(Sort.Direction.DESC, "_id")));
+        Page<ExpenseResponse> expenses = expenseService.getGroupExpenses(groupId, userId, pageable, status);
+        return ResponseEntity.ok(ApiResponse.success(expenses));
+    }
+
+    @GetMapping("/{groupId}/balances")
+    public ResponseEntity<ApiResponse<GroupBalanceResponse>> getGroupBalances(
+            @PathVariable String groupId,
+            @CurrentUserId String userId) {
+        GroupBalanceResponse balances = settlementPlanService.getGroupBalances(groupId, userId);
+        return ResponseEntity.ok(ApiResponse.success(balances));
+    }
+
+    @GetMapping("/{groupId}/settlement-plan")
+    public ResponseEntity<ApiResponse<SettlementPlanResponse>> getSettlementPlan(
+            @PathVariable String groupId,
+            @CurrentUserId String userId) {
+        SettlementPlanResponse plan = settlementPlanService.getSettlementPlan(groupId, userId);
+        return ResponseEntity.ok(ApiResponse.success(plan));
     }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ public class HealthController {
     /**
      * Health check endpoint.
      * Returns the status of the application and its dependencies.
+     * Public, so internal statistics live behind {@link AdminController#stats()} instead.
      * @return ApiResponse with health status details
      */
     @GetMapping("/health")
@@ -0,0 +1,50 @@
+package com.truesplit.TrueSplit.controller;
+
+import com.truesplit.TrueSplit.dto.response.ApiResponse;
+import com.truesplit.TrueSplit.model.Notification;
+import com.truesplit.TrueSplit.security.CurrentUserId;
+import com.truesplit.TrueSplit.service.notification.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<Notification>>> getNotifications(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @CurrentUserId String userId) {
+        Page<Notification> notifications =
+                notificationService.getNotifications(userId, PageRequest.of(page, size), unreadOnly);
+        return ResponseEntity.ok(ApiResponse.success(notifications));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount(@CurrentUserId String userId) {
+        return ResponseEntity.ok(ApiResponse.success(Map.of("unread", notificationService.getUnreadCount(userId))));
+    }
+
+    @PatchMapping("/{notificationId}/read")
+    public ResponseEntity<ApiResponse<Void>> markRead(
+            @PathVariable String notificationId,
+            @CurrentUserId String userId) {
+        notificationService.markRead(userId, notificationId);
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> markAllRead(@CurrentUserId String userId) {
+        return ResponseEntity.ok(ApiResponse.success(Map.of("updated", notificationService.markAllRead(userId))));
+    }
+}
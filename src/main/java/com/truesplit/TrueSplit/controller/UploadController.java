@@ -1,16 +1,13 @@
 package com.truesplit.TrueSplit.controller;
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.dto.request.UploadSignatureRequest;
 import com.truesplit.TrueSplit.dto.response.ApiResponse;
 import com.truesplit.TrueSplit.dto.response.UploadSignatureResponse;
-import com.truesplit.TrueSplit.exception.NotFoundException;
-import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.security.CurrentUserId;
 import com.truesplit.TrueSplit.service.UploadService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -22,18 +19,13 @@ import org.springframework.web.bind.annotation.RestController;
 public class UploadController {
 
     private final UploadService uploadService;
-    private final UserRepository userRepository;
 
     @PostMapping("/signature")
     public ResponseEntity<ApiResponse<UploadSignatureResponse>> getUploadSignature(
             @Valid @RequestBody UploadSignatureRequest request,
-            Authentication authentication) {
+            @CurrentUserId String userId) {
 
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found"));
-
-        UploadSignatureResponse response = uploadService.generateSignature(request, user.getId());
+        UploadSignatureResponse response = uploadService.generateSignature(request, userId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
\ No newline at end of file
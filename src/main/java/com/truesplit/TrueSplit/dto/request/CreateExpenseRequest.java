@@ -21,7 +21,8 @@ public class CreateExpenseRequest {
     private String currency;
 
     @NotBlank(message = "Split type is required")
-    @Pattern(regexp = "EQUAL|MANUAL", message = "Split type must be EQUAL or MANUAL")
+    @Pattern(regexp = "EQUAL|MANUAL|PERCENTAGE|SHARES|ITEMIZED",
+            message = "Split type must be EQUAL, MANUAL, PERCENTAGE, SHARES or ITEMIZED")
     private String splitType;
 
     @NotBlank(message = "Paid by user is required")
@@ -1,16 +1,28 @@
 package com.truesplit.TrueSplit.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.util.List;
+
+// Only the field for the expense's split type is read: amount, percentage, shares or items
 @Data
 public class ManualSplitEntry {
     @NotBlank(message = "User ID is required")
     private String userId;
 
-    @NotNull(message = "Amount is required")
     @Positive(message = "Amount must be positive")
     private Double amount;
+
+    @PositiveOrZero(message = "Percentage cannot be negative")
+    @DecimalMax(value = "100", message = "Percentage cannot exceed 100")
+    private Double percentage;
+
+    @PositiveOrZero(message = "Shares cannot be negative")
+    private Integer shares;
+
+    private List<@Positive(message = "Item amounts must be positive") Double> items;
 }
@@ -0,0 +1,29 @@
+package com.truesplit.TrueSplit.dto.response;
+
+import com.truesplit.TrueSplit.model.Money;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BalanceSummaryResponse {
+    private List<CurrencyBalance> balances;
+
+    @Data
+    @Builder
+    public static class CurrencyBalance {
+        private String currency;
+        private Money totalOwed;
+        private Money totalToReceive;
+        private List<CounterpartyBalance> counterparties;
+    }
+
+    @Data
+    @Builder
+    public static class CounterpartyBalance {
+        private String userId;
+        private Money amount;
+    }
+}
@@ -1,5 +1,6 @@
 package com.truesplit.TrueSplit.dto.response;
 
+import com.truesplit.TrueSplit.model.Money;
 import lombok.Builder;
 import lombok.Data;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -14,7 +15,7 @@ public class ExpenseResponse {
     private String title;
     private String titleSlug;
     private String description;
-    private String totalAmount;
+    private Money totalAmount;
     private String currency;
     private String splitType;
     private PaidByInfo paidBy;
@@ -58,7 +59,7 @@ public class ExpenseResponse {
     @Builder
     public static class ManualSplitInfo {
         private String userId;
-        private String amount;
+        private Money amount;
     }
 
     @Data
@@ -0,0 +1,29 @@
+package com.truesplit.TrueSplit.dto.response;
+
+import com.truesplit.TrueSplit.model.Money;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class GroupBalanceResponse {
+    private String groupId;
+    private List<CurrencyBalances> currencies;
+
+    @Data
+    @Builder
+    public static class CurrencyBalances {
+        private String currency;
+        private List<MemberBalance> balances;
+    }
+
+    // Positive: the group owes this member; negative: this member owes the group
+    @Data
+    @Builder
+    public static class MemberBalance {
+        private String userId;
+        private Money amount;
+    }
+}
@@ -1,5 +1,6 @@
 package com.truesplit.TrueSplit.dto.response;
 
+import com.truesplit.TrueSplit.model.Money;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,7 +15,7 @@ public class RecentExpenseResponse {
     private String titleSlug;
     private List<ParticipantSummary> participants;
     private Instant time;
-    private String pendingAmount;
+    private Money pendingAmount;
     private String currency;
 
     @Data
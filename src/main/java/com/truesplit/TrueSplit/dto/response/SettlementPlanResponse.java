@@ -0,0 +1,29 @@
+package com.truesplit.TrueSplit.dto.response;
+
+import com.truesplit.TrueSplit.model.Money;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SettlementPlanResponse {
+    private String groupId;
+    private List<CurrencyPlan> plans;
+
+    @Data
+    @Builder
+    public static class CurrencyPlan {
+        private String currency;
+        private List<TransferInfo> transfers;
+    }
+
+    @Data
+    @Builder
+    public static class TransferInfo {
+        private String fromUserId;
+        private String toUserId;
+        private Money amount;
+    }
+}
@@ -0,0 +1,7 @@
+package com.truesplit.TrueSplit.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
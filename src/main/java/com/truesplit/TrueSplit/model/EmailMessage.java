@@ -0,0 +1,47 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An email waiting for {@code EmailDispatcher}. Rows are deleted once sent; FAILED rows keep their
+ * error for a week and then expire. Lower {@code priority} values go first. Mail carrying a
+ * secret, such as an OTP, never goes through this collection.
+ */
+@Data
+@Document(collection = "email_queue")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_priority_available_idx", def = "{'status': 1, 'priority': 1, 'availableAt': 1}"),
+        @CompoundIndex(name = "status_locked_idx", def = "{'status': 1, 'lockedUntil': 1}")
+})
+public class EmailMessage {
+    public static final int PRIORITY_IMMEDIATE = 0;
+    public static final int PRIORITY_DIGEST = 10;
+
+    @Id
+    private String id;
+    private String recipient;
+    private String subject;
+    private String body;
+    private int priority;
+    private String status; // PENDING, SENDING, FAILED
+    private int attempts;
+    private Instant availableAt;
+    private Instant lockedUntil;
+    private Instant discardAfter; // e.g. an OTP that has expired is not worth sending
+
+    @Indexed(sparse = true)
+    private String claimToken;
+    private String lastError;
+
+    // TTL: set only when the message is given up on
+    @Indexed(name = "failed_ttl_idx", expireAfter = "7d")
+    private Instant failedAt;
+    private Instant createdAt;
+}
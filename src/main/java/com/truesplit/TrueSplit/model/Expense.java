@@ -4,7 +4,11 @@ package com.truesplit.TrueSplit.model;
 import lombok.*;
 import org.bson.types.Decimal128;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -12,6 +16,14 @@ import java.util.List;
 
 @Data
 @Document(collection = "expenses")
+@CompoundIndexes({
+        // One index per $or branch of the listing query, each covering the status filter and the
+        // (expenseDateTime, _id) order used by both offset and keyset pagination
+        @CompoundIndex(name = "created_by_status_date_idx", def = "{'createdBy': 1, 'status': 1, 'expenseDateTime': -1, '_id': -1}"),
+        @CompoundIndex(name = "participants_status_date_idx", def = "{'participants': 1, 'status': 1, 'expenseDateTime': -1, '_id': -1}"),
+        // Group listing and group balances
+        @CompoundIndex(name = "group_status_date_idx", def = "{'groupId': 1, 'status': 1, 'expenseDateTime': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -20,27 +32,38 @@ public class Expense {
     @Id
     private String id;
 
+    @TextIndexed(weight = 3)
     private String title;
 
     @Indexed(unique = true)
     private String titleSlug;
 
+    @TextIndexed
     private String description;
     private Decimal128 totalAmount;
     private String currency; // USD, INR
-    private String splitType; // EQUAL, MANUAL
+    private String splitType; // EQUAL, MANUAL, PERCENTAGE, SHARES, ITEMIZED
     private String paidBy;
     private String createdBy;
+    private String groupId;
     private List<String> participants;
+
+    @TextIndexed(weight = 2)
+    private List<String> participantNames;
+
     private List<ManualSplit> manualSplits;
     private Instant expenseDateTime;
     private String timezone;
     private String status; // ACTIVE, COMPLETE, DELETED
     private List<ParticipantSettlement> participantSettlement;
+    private Boolean ledgerRecorded; // outstanding shares are in user_balances; unset on expenses from before the ledger
     private List<Image> images;
     private Instant createdAt;
     private Instant updatedAt;
 
+    @Version
+    private Long version;
+
     @Data
     public static class ManualSplit {
         private String userId;
@@ -50,8 +73,12 @@ public class Expense {
     @Data
     public static class ParticipantSettlement {
         private String userId;
+        private String status; // PENDING, ACCEPTED, REJECTED, PAYMENT_REQUESTED, SETTLED, CANCELLED
+        private Money shareAmount;
         private boolean settled;
         private Instant settledAt;
+        private Instant createdAt;
+        private Instant updatedAt;
     }
 
     @Data
@@ -0,0 +1,14 @@
+package com.truesplit.TrueSplit.model;
+
+public enum ExpenseEventType {
+    EXPENSE_CREATED,
+    PARTICIPANT_ACCEPTED,
+    PARTICIPANT_REJECTED,
+    EXPENSE_ACTIVATED,
+    PAYMENT_REQUESTED,
+    PAYMENT_REQUEST_CANCELLED,
+    PAYMENT_APPROVED,
+    PAYMENT_REJECTED,
+    EXPENSE_SETTLED,
+    EXPENSE_CANCELLED
+}
@@ -2,6 +2,7 @@ package com.truesplit.TrueSplit.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
 import java.util.List;
@@ -12,6 +13,7 @@ public class Group {
     @Id
     private String id;
     private String name;
+    @Indexed
     private String ownerId;
     private List<String> memberIds; // convenience, but we'll use separate collection for members
     private Instant createdAt;
@@ -3,6 +3,7 @@ package com.truesplit.TrueSplit.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -16,6 +17,7 @@ public class GroupMember {
     private String id;
     private String groupId;
 
+    @Indexed
     @Field("userId")
     private String userId;
     private boolean hasPermission; // ability to create expenses for the group
@@ -0,0 +1,267 @@
+package com.truesplit.TrueSplit.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.bson.types.Decimal128;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount as a whole number of minor units (cents, paise, yen) of one currency.
+ * Arithmetic is exact {@code long} math; the only rounding happens in {@link #of(BigDecimal, String)}
+ * when a decimal carries more digits than the currency has. Splits never lose or invent a minor
+ * unit: the remainder goes one unit at a time to the largest fractional parts.
+ * <p>
+ * Serialised to JSON as a plain decimal string at the currency's own scale ({@code "12.50"},
+ * {@code "1050"} for JPY), and read back from that string, a number or {@code {amount, currency}};
+ * a bare value is taken as {@link #DEFAULT_CURRENCY}. Stored in Mongo as {@code {minor, currency}}.
+ */
+@JsonSerialize(using = Money.PlainStringSerializer.class)
+@JsonDeserialize(using = Money.PlainStringDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    private final long minor;
+    private final String currency;
+
+    private Money(long minor, String currency) {
+        this.minor = minor;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minor, String currency) {
+        return new Money(minor, currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        BigInteger minor = amount.setScale(fractionDigits(currency), RoundingMode.HALF_UP).unscaledValue();
+        if (minor.bitLength() >= Long.SIZE) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is out of range.");
+        }
+        return new Money(minor.longValue(), currency);
+    }
+
+    public static Money of(Decimal128 amount, String currency) {
+        return of(amount.bigDecimalValue(), currency);
+    }
+
+    public long getMinor() {
+        return minor;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minor), currency);
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+
+    public Decimal128 toDecimal128() {
+        return new Decimal128(toBigDecimal());
+    }
+
+    public String toPlainString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // Equal parts; the first (amount mod parts) of them carry one extra minor unit
+    public Money[] split(int parts) {
+        long[] out = new long[parts];
+        splitMinor(minor, parts, out);
+        return wrap(out);
+    }
+
+    // Parts proportional to the weights, largest remainder first
+    public Money[] allocate(long[] weights) {
+        long[] out = new long[weights.length];
+        allocateMinor(minor, weights, out);
+        return wrap(out);
+    }
+
+    /**
+     * Equal split of {@code total} into {@code out.length == parts} pieces without allocating.
+     * {@code total} must not be negative.
+     */
+    public static void splitMinor(long total, int parts, long[] out) {
+        if (parts <= 0 || out.length < parts) {
+            throw new IllegalArgumentException("Cannot split into " + parts + " parts.");
+        }
+        if (total < 0) {
+            throw new IllegalArgumentException("Cannot split a negative amount.");
+        }
+        long base = total / parts;
+        long extra = total % parts;
+        for (int i = 0; i < parts; i++) {
+            out[i] = base + (i < extra ? 1 : 0);
+        }
+    }
+
+    /**
+     * Largest-remainder (Hamilton) allocation of {@code total} over non-negative {@code weights}.
+     * The results always add up to {@code total}; ties on the remainder go to the lower index.
+     */
+    public static void allocateMinor(long total, long[] weights, long[] out) {
+        allocateMinor(total, weights, out, new long[weights.length]);
+    }
+
+    /**
+     * Same as {@link #allocateMinor(long, long[], long[])} with caller-owned scratch space of at least
+     * {@code weights.length}, so bulk recomputation can reuse arrays and allocate nothing.
+     */
+    public static void allocateMinor(long total, long[] weights, long[] out, long[] remainders) {
+        if (total < 0) {
+            throw new IllegalArgumentException("Cannot allocate a negative amount.");
+        }
+        long weightSum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative.");
+            }
+            if (weightSum > Long.MAX_VALUE - weight) {
+                throw new IllegalArgumentException("Weights are too large.");
+            }
+            weightSum += weight;
+        }
+        if (weightSum == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive.");
+        }
+
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            // Quotient is at most total and remainder below weightSum, so only the product needs widening
+            if (Math.multiplyHigh(total, weights[i]) == 0 && total * weights[i] >= 0) {
+                long product = total * weights[i];
+                out[i] = product / weightSum;
+                remainders[i] = product % weightSum;
+            } else {
+                BigInteger[] qr = BigInteger.valueOf(total).multiply(BigInteger.valueOf(weights[i]))
+                        .divideAndRemainder(BigInteger.valueOf(weightSum));
+                out[i] = qr[0].longValue();
+                remainders[i] = qr[1].longValue();
+            }
+            allocated += out[i];
+        }
+        // Fewer leftover units than parts, so a linear scan per unit stays cheap
+        for (long left = total - allocated; left > 0; left--) {
+            int best = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (remainders[i] >= 0 && (best < 0 || remainders[i] > remainders[best])) {
+                    best = i;
+                }
+            }
+            out[best]++;
+            remainders[best] = -1;
+        }
+    }
+
+    public static int fractionDigits(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? 2 : digits;
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return 2;
+        }
+    }
+
+    private Money[] wrap(long[] parts) {
+        Money[] result = new Money[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = new Money(parts[i], currency);
+        }
+        return result;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " with " + other.currency + ".");
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money other)) return false;
+        return minor == other.minor && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minor) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString() + " " + currency;
+    }
+
+    public static class PlainStringSerializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeString(value.toPlainString());
+        }
+    }
+
+    public static class PlainStringDeserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode node = parser.readValueAsTree();
+            JsonNode amount = node.isObject() ? node.get("amount") : node;
+            JsonNode currency = node.isObject() ? node.get("currency") : null;
+            if (amount == null || !(amount.isNumber() || amount.isTextual())) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            try {
+                return of(new BigDecimal(amount.asText().trim()),
+                        currency != null && !currency.isNull() ? currency.asText() : DEFAULT_CURRENCY);
+            } catch (NumberFormatException | ArithmeticException ex) {
+                return (Money) context.handleWeirdStringValue(Money.class, amount.asText(), "not a valid amount");
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.truesplit.TrueSplit.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "notifications")
+@CompoundIndexes({
+        // Unread badge count and the unread-only list
+        @CompoundIndex(name = "user_read_created_idx", def = "{'userId': 1, 'read': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1}"),
+        // Redelivered outbox events must not notify twice
+        @CompoundIndex(name = "source_user_idx", def = "{'sourceEventId': 1, 'userId': 1}", unique = true)
+})
+public class Notification {
+    @Id
+    private String id;
+    private String userId;
+    private ExpenseEventType type;
+    private String expenseId;
+    private String actorId;
+    private String message;
+    private boolean read;
+    private Instant createdAt;
+
+    @JsonIgnore
+    private String sourceEventId;
+
+    // Set while the notification still has to go out in an email digest; unset once claimed
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private Boolean emailPending;
+
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private String digestToken;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -18,8 +19,11 @@ public class Otp {
 
     @Id
     private String id;
+    @Indexed
     private String email;
-    private String code;
+    private String code; // Base64 HMAC-SHA256 of email and code, never the code itself
+    // TTL: Mongo's monitor removes the document once this passes (within about a minute)
+    @Indexed(name = "expires_ttl_idx", expireAfter = "0s")
     private Instant expiresAt;
     private boolean verified;
 }
@@ -0,0 +1,26 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * OTP sends and verification attempts for one email within a window. Kept apart from the OTP
+ * itself, which a resend replaces, so asking for a new code does not reset the guess budget.
+ */
+@Data
+@Document(collection = "otp_quotas")
+public class OtpQuota {
+
+    @Id
+    private String email;
+    private int sends;
+    private int attempts;
+
+    // TTL: the window closes when Mongo removes the document
+    @Indexed(name = "expires_ttl_idx", expireAfter = "0s")
+    private Instant expiresAt;
+}
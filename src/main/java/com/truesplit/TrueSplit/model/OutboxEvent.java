@@ -0,0 +1,40 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A domain event waiting to be delivered to its handlers. Rows are deleted once every handler
+ * has run; a row stuck in PROCESSING past {@code lockedUntil} belongs to a dispatcher that died
+ * and is claimed again.
+ */
+@Data
+@Document(collection = "outbox")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_available_idx", def = "{'status': 1, 'availableAt': 1}"),
+        @CompoundIndex(name = "status_locked_idx", def = "{'status': 1, 'lockedUntil': 1}")
+})
+public class OutboxEvent {
+    @Id
+    private String id;
+    private ExpenseEventType type;
+    private String expenseId;
+    private String payerId;
+    private String actorId; // who caused the event
+    private String userId;  // who it is about, when that is one participant
+    private String status;  // PENDING, PROCESSING, FAILED
+    private int attempts;
+    private Instant availableAt;
+    private Instant lockedUntil;
+
+    @Indexed(sparse = true)
+    private String claimToken;
+    private String lastError;
+    private Instant createdAt;
+}
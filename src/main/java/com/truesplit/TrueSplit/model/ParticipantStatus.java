@@ -2,6 +2,7 @@ package com.truesplit.TrueSplit.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
@@ -20,4 +21,7 @@ public class ParticipantStatus {
     private Instant settledAt;
     private Instant createdAt;
     private Instant updatedAt;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -19,7 +19,10 @@ public class RefreshToken {
     @Indexed
     private String userId;
 
+    // TTL; revoking a token also pulls this in, so revoked tokens age out the same way
+    @Indexed(name = "expires_ttl_idx", expireAfter = "0s")
     private Instant expiresAt;
     private Instant createdAt;
+    @Indexed(sparse = true)
     private Instant revokedAt;
 }
@@ -0,0 +1,13 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Document(collection = "slug_counters")
+public class SlugCounter {
+    @Id
+    private String id; // base slug
+    private long seq;
+}
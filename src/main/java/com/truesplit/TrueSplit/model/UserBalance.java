@@ -0,0 +1,22 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.bson.types.Decimal128;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "user_balances")
+@CompoundIndex(name = "user_counterparty_currency_idx", def = "{'userId': 1, 'counterpartyId': 1, 'currency': 1}", unique = true)
+public class UserBalance {
+    @Id
+    private String id;
+    private String userId;
+    private String counterpartyId;
+    private String currency;
+    private Decimal128 amount; // positive: counterparty owes userId, negative: userId owes counterparty
+    private Instant updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.truesplit.TrueSplit.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One expense as it appears on one user's recent-activity feed, already in the shape the
+ * dashboard renders. Written by {@code TimelineProjector} whenever the expense changes.
+ */
+@Data
+@Document(collection = "user_timeline")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_expense_idx", def = "{'userId': 1, 'expenseId': 1}", unique = true),
+        @CompoundIndex(name = "user_time_idx", def = "{'userId': 1, 'time': -1}")
+})
+public class UserTimelineEntry {
+    @Id
+    private String id;
+    private String userId;
+    private String expenseId;
+    private String title;
+    private String titleSlug;
+    private List<Participant> participants;
+    private Instant time;
+    private Money pendingAmount; // what this user is owed (as payer) or owes on the expense
+    private String currency;
+    private Instant updatedAt;
+
+    @Data
+    public static class Participant {
+        private String id;
+        private String name;
+        private String avatar;
+    }
+}
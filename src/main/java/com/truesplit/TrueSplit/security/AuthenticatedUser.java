@@ -0,0 +1,32 @@
+package com.truesplit.TrueSplit.security;
+
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Principal stored in the security context for JWT-authenticated requests.
+ * {@link #getName()} stays the email so existing {@code authentication.getName()} callers keep working.
+ */
+@Value
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+    String id;
+    String email;
+    List<String> roles;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        if (roles == null || roles.isEmpty()) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        return roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,41 @@
+package com.truesplit.TrueSplit.security;
+
+import com.truesplit.TrueSplit.exception.NotFoundException;
+import com.truesplit.TrueSplit.exception.UnauthorizedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final PrincipalCache principalCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUserId.class)
+                && String.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new UnauthorizedException("Please sign in to continue.");
+        }
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return principalCache.resolve(auth.getName())
+                .map(AuthenticatedUser::getId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+}
@@ -1,6 +1,5 @@
 package com.truesplit.TrueSplit.security;
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -8,7 +7,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
@@ -16,13 +14,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -31,12 +27,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = getJwtFromRequest(request);
 
-        if (token != null && jwtUtil.validateToken(token)) {
+        JwtPrincipal claims = token != null ? jwtUtil.parse(token).orElse(null) : null;
 
-            String username = jwtUtil.getUsername(token);
+        if (claims != null) {
 
-            // USER DELETED CHECK
-            if (!userRepository.existsByEmail(username)) {
+            // USER DELETED CHECK (served from the principal cache)
+            var principal = principalCache.resolve(claims.getEmail());
+            boolean stale = principal.isPresent() && claims.getUserId() != null
+                    && !claims.getUserId().equals(principal.get().getId());
+            if (principal.isEmpty() || stale) {
 
                 // Clear auth cookie
                 Cookie cookie = new Cookie("TS_AUTH", "");
@@ -54,13 +53,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            var userDetails = userDetailsService.loadUserByUsername(username);
+            // Roles come from the cached principal, not the token, so a role change applies within the
+            // cache TTL instead of lasting until the token expires; the userId claim is checked above
+            AuthenticatedUser user = principal.get();
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            user,
                             null,
-                            userDetails.getAuthorities()
+                            user.getAuthorities()
                     );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
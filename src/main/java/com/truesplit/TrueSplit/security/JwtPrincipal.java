@@ -0,0 +1,17 @@
+package com.truesplit.TrueSplit.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified contents of an access token. {@code userId} is null for tokens issued before it was embedded.
+ */
+@Value
+public class JwtPrincipal {
+    String email;
+    String userId;
+    List<String> roles;
+    Instant expiresAt;
+}
@@ -8,43 +8,66 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtUtil {
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLES_CLAIM = "roles";
+
     private final Key key;
     private final long expirationMS;
+    private final JwtParser parser; // immutable and thread-safe, built once
 
     public JwtUtil(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration-ms}") long expirationMS) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMS = expirationMS;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
-    public String generateToken(String subject, List<String> roles) {
+    public String generateToken(String subject, String userId, List<String> roles) {
         long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(subject)
-                .claim("roles",roles)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date((now + expirationMS)))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature once and returns everything the request needs from the token.
+     * Returns empty for malformed, tampered or expired tokens.
+     */
+    public Optional<JwtPrincipal> parse(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-
-        } catch (JwtException ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return Optional.of(new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get(USER_ID_CLAIM, String.class),
+                    readRoles(claims),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+            ));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
         }
     }
 
-    public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-        return claims.getSubject();
+    private List<String> readRoles(Claims claims) {
+        Object raw = claims.get(ROLES_CLAIM);
+        if (!(raw instanceof List<?> values)) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>(values.size());
+        for (Object value : values) {
+            roles.add(String.valueOf(value));
+        }
+        return List.copyOf(roles);
     }
 }
@@ -0,0 +1,58 @@
+package com.truesplit.TrueSplit.security;
+
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.cache.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches the authenticated principal by email so steady-state requests need no user lookup.
+ * Missing users are cached too (as deleted), which keeps revoked sessions cheap to reject.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final CachedPrincipal DELETED = new CachedPrincipal(null);
+
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<String, CachedPrincipal> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${auth.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public Optional<AuthenticatedUser> resolve(String email) {
+        CachedPrincipal cached = cache.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> new CachedPrincipal(new AuthenticatedUser(user.getId(), user.getEmail(), user.getRoles())))
+                .orElse(DELETED));
+        return Optional.ofNullable(cached.user);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+
+    private static final class CachedPrincipal {
+        private final AuthenticatedUser user;
+
+        private CachedPrincipal(AuthenticatedUser user) {
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.truesplit.TrueSplit.security;
+
+import com.truesplit.TrueSplit.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidationListener extends AbstractMongoEventListener<User> {
+
+    private final PrincipalCache principalCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        principalCache.invalidate(event.getSource().getEmail());
+    }
+
+    // Delete events only carry the id, so drop everything rather than risk serving a deleted user
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        principalCache.invalidateAll();
+    }
+}
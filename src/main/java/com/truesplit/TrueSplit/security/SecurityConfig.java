@@ -1,6 +1,5 @@
 package com.truesplit.TrueSplit.security;
 
-import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.service.OAuth2LoginSuccessHandler;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -16,20 +15,17 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService customUserDetailsService;
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     public SecurityConfig(
             JwtUtil jwtUtil,
-            CustomUserDetailsService customUserDetailsService,
             OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler,
-            UserRepository userRepository
+            PrincipalCache principalCache
     ) {
         this.jwtUtil = jwtUtil;
-        this.customUserDetailsService = customUserDetailsService;
         this.oAuth2LoginSuccessHandler = oAuth2LoginSuccessHandler;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Bean
@@ -37,8 +33,7 @@ public class SecurityConfig {
 
         var jwtFilter = new JwtAuthenticationFilter(
                 jwtUtil,
-                customUserDetailsService,
-                userRepository
+                principalCache
         );
 
         http
@@ -61,6 +56,7 @@ public class SecurityConfig {
                                 "/api/v1/auth/**",      // Authentication endpoint
                                 "/api/v1/health"       // Health check endpoint
                         ).permitAll()
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")   // Internal stats
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth -> oauth
@@ -70,6 +66,10 @@ public class SecurityConfig {
                     res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     res.setContentType("application/json");
                     res.getWriter().write("{\"success\":false,\"error\":{\"code\":\"UNAUTHORIZED\",\"message\":\"Please sign in to continue.\"}}");
+                }).accessDeniedHandler((req, res, exx) -> {
+                    res.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    res.setContentType("application/json");
+                    res.getWriter().write("{\"success\":false,\"error\":{\"code\":\"FORBIDDEN\",\"message\":\"You do not have access to this resource.\"}}");
                 }))
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
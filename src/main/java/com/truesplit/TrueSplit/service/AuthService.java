@@ -11,6 +11,10 @@ import com.truesplit.TrueSplit.model.User;
 import com.truesplit.TrueSplit.security.JwtUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +25,7 @@ import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -32,6 +37,9 @@ public class AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final long accessTokenExpirationMs;
     private final long refreshTokenExpirationMs;
+    private final long revokedRetentionMs;
+    private final int revokedPurgeBatch;
+    private final MongoTemplate mongoTemplate;
     private final SecureRandom secureRandom = new SecureRandom();
 
     public AuthService(
@@ -41,7 +49,10 @@ public class AuthService {
             OtpRepository otpRepository,
             RefreshTokenRepository refreshTokenRepository,
             @Value("${jwt.expiration-ms}") long accessTokenExpirationMs,
-            @Value("${jwt.refresh-expiration-ms}") long refreshTokenExpirationMs
+            @Value("${jwt.refresh-expiration-ms}") long refreshTokenExpirationMs,
+            @Value("${jwt.revoked-refresh-retention-ms:86400000}") long revokedRetentionMs,
+            @Value("${jwt.revoked-refresh-purge-batch:1000}") int revokedPurgeBatch,
+            MongoTemplate mongoTemplate
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -50,6 +61,9 @@ public class AuthService {
         this.refreshTokenRepository = refreshTokenRepository;
         this.accessTokenExpirationMs = accessTokenExpirationMs;
         this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.revokedRetentionMs = revokedRetentionMs;
+        this.revokedPurgeBatch = revokedPurgeBatch;
+        this.mongoTemplate = mongoTemplate;
     }
 
     public AuthResponse signup(User user) {
@@ -100,8 +114,7 @@ public class AuthService {
         User user = userRepository.findById(storedToken.getUserId())
                 .orElseThrow(() -> new UnauthorizedException("Please sign in again."));
 
-        storedToken.setRevokedAt(Instant.now());
-        refreshTokenRepository.save(storedToken);
+        revoke(storedToken);
 
         return createAuthResponse(user);
     }
@@ -111,10 +124,7 @@ public class AuthService {
             return;
         }
 
-        refreshTokenRepository.findByTokenHash(hashToken(refreshToken)).ifPresent(token -> {
-            token.setRevokedAt(Instant.now());
-            refreshTokenRepository.save(token);
-        });
+        refreshTokenRepository.findByTokenHash(hashToken(refreshToken)).ifPresent(this::revoke);
     }
 
     // create user (for OAuth2) if not present, return JWT
@@ -145,6 +155,37 @@ public class AuthService {
                 .orElse(false);
     }
 
+    // Kept for a while after revocation, then the TTL index on expiresAt removes it
+    private void revoke(RefreshToken token) {
+        Instant now = Instant.now();
+        Instant retainUntil = now.plusMillis(revokedRetentionMs);
+        token.setRevokedAt(now);
+        if (token.getExpiresAt() == null || token.getExpiresAt().isAfter(retainUntil)) {
+            token.setExpiresAt(retainUntil);
+        }
+        refreshTokenRepository.save(token);
+    }
+
+    /**
+     * Clears tokens revoked before revocation started shortening expiresAt. Bounded per run so a
+     * large backlog drains over several runs instead of in one long delete.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revoked-refresh-purge-interval-ms:3600000}")
+    public void purgeRevokedTokens() {
+        Query stale = new Query(Criteria.where("revokedAt").lt(Instant.now().minusMillis(revokedRetentionMs)))
+                .limit(revokedPurgeBatch);
+        stale.fields().include("_id");
+        List<String> ids = mongoTemplate.find(stale, RefreshToken.class).stream()
+                .map(RefreshToken::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        long deleted = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), RefreshToken.class)
+                .getDeletedCount();
+        log.info("[TOKEN CLEANUP] Deleted {} revoked refresh token(s)", deleted);
+    }
+
     private AuthResponse createAuthResponse(User user) {
         String refreshToken = generateSecureToken();
         RefreshToken storedToken = new RefreshToken();
@@ -155,7 +196,7 @@ public class AuthService {
         refreshTokenRepository.save(storedToken);
 
         return AuthResponse.builder()
-                .authToken(jwtUtil.generateToken(user.getEmail(), user.getRoles()))
+                .authToken(jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRoles()))
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresInMs(accessTokenExpirationMs)
@@ -0,0 +1,92 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * One-off fill of {@code user_balances} from expenses created before the ledger existed.
+ * Enabled with {@code ledger.backfill-on-startup=true}; walks unrecorded expenses in {@code _id}
+ * order, one batch at a time. Each expense is flagged {@code ledgerRecorded} before its
+ * outstanding shares are read and added, so a rerun or a second instance never counts it twice.
+ * Best run while settlements are quiet: a share released by a request that loaded its expense
+ * before the flag, and wrote after the re-read, can still be counted.
+ */
+@Component
+@Slf4j
+public class BalanceLedgerBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Set<String> OPEN_EXPENSES = Set.of("PENDING", "ACTIVE");
+
+    private final MongoTemplate mongoTemplate;
+    private final ParticipantStateStore participantState;
+    private final BalanceLedgerService balanceLedger;
+    private final boolean enabled;
+
+    public BalanceLedgerBackfill(MongoTemplate mongoTemplate, ParticipantStateStore participantState,
+                                 BalanceLedgerService balanceLedger,
+                                 @Value("${ledger.backfill-on-startup:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.participantState = participantState;
+        this.balanceLedger = balanceLedger;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long recorded = 0;
+        String lastId = null;
+        while (true) {
+            Criteria criteria = Criteria.where("ledgerRecorded").ne(true);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(new ObjectId(lastId));
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("_id");
+            List<String> ids = mongoTemplate.find(query, Expense.class).stream().map(Expense::getId).toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<String> claimed = new ArrayList<>();
+            for (String id : ids) {
+                // The version bump makes a concurrent save of an older copy fail instead of clearing the flag
+                if (mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(id).and("ledgerRecorded").ne(true)),
+                        new Update().set("ledgerRecorded", true).inc("version", 1),
+                        Expense.class).getModifiedCount() == 1) {
+                    claimed.add(id);
+                }
+            }
+
+            // Read after flagging: from here on every release of these expenses reaches the ledger
+            List<Expense> expenses = mongoTemplate.find(new Query(Criteria.where("_id").in(claimed)), Expense.class);
+            Map<String, List<ParticipantStatus>> statuses = participantState.findByExpenses(expenses);
+            for (Expense expense : expenses) {
+                if (OPEN_EXPENSES.contains(expense.getStatus())) {
+                    balanceLedger.recordOutstanding(expense, statuses.getOrDefault(expense.getId(), List.of()));
+                    recorded++;
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.info("[LEDGER BACKFILL] Recorded outstanding shares of {} expense(s)", recorded);
+    }
+}
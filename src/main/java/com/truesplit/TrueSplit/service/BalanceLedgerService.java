@@ -0,0 +1,168 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.UserBalanceRepository;
+import com.truesplit.TrueSplit.dto.response.BalanceSummaryResponse;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import com.truesplit.TrueSplit.model.UserBalance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Maintains the materialized {@code user_balances} ledger.
+ * Every outstanding share is stored twice, once from each side of the pair,
+ * so a user's full position is a single indexed read on {@code userId}.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerService {
+
+    private final UserBalanceRepository userBalanceRepository;
+    private final MongoTemplate mongoTemplate;
+
+    static final Set<String> OUTSTANDING = Set.of("PENDING", "ACCEPTED", "PAYMENT_REQUESTED");
+
+    // A participant owes the payer their share once the expense is created
+    public void recordExpense(Expense expense) {
+        if (expense.getManualSplits() == null) {
+            return;
+        }
+        String currency = currencyOf(expense);
+        Map<String, Money> owed = new LinkedHashMap<>();
+        for (Expense.ManualSplit split : expense.getManualSplits()) {
+            if (!split.getUserId().equals(expense.getPaidBy())) {
+                owed.put(split.getUserId(), Money.of(split.getAmount(), currency));
+            }
+        }
+        apply(expense, owed, false);
+    }
+
+    /**
+     * Records the shares still outstanding on an expense from before the ledger, given its current
+     * participant state. Only {@link BalanceLedgerBackfill} calls this, once per expense.
+     */
+    public void recordOutstanding(Expense expense, Collection<ParticipantStatus> statuses) {
+        String currency = currencyOf(expense);
+        Map<String, Money> owed = new LinkedHashMap<>();
+        for (ParticipantStatus ps : statuses) {
+            if (!ps.getUserId().equals(expense.getPaidBy()) && ps.getShareAmount() != null
+                    && OUTSTANDING.contains(ps.getStatus())) {
+                owed.put(ps.getUserId(), Money.of(ps.getShareAmount(), currency));
+            }
+        }
+        apply(expense, owed, false);
+    }
+
+    // The share is no longer outstanding (settled, rejected or cancelled). Expenses the ledger never
+    // recorded are skipped, otherwise releasing them would leave negative rows behind.
+    public void release(Expense expense, String participantId, BigDecimal share) {
+        if (!isRecorded(expense) || participantId.equals(expense.getPaidBy()) || share == null) {
+            return;
+        }
+        apply(expense, Map.of(participantId, Money.of(share, currencyOf(expense))), true);
+    }
+
+    public void releaseAll(Expense expense, Collection<ParticipantStatus> statuses) {
+        if (!isRecorded(expense)) {
+            return;
+        }
+        String currency = currencyOf(expense);
+        Map<String, Money> released = new LinkedHashMap<>();
+        for (ParticipantStatus ps : statuses) {
+            if (!ps.getUserId().equals(expense.getPaidBy()) && ps.getShareAmount() != null) {
+                released.put(ps.getUserId(), Money.of(ps.getShareAmount(), currency));
+            }
+        }
+        apply(expense, released, true);
+    }
+
+    public BalanceSummaryResponse getSummary(String userId) {
+        Map<String, List<UserBalance>> byCurrency = new TreeMap<>();
+        for (UserBalance balance : userBalanceRepository.findByUserId(userId)) {
+            // Rows written before apply() defaulted the currency carry none; they were USD amounts
+            String currency = balance.getCurrency() != null ? balance.getCurrency() : "USD";
+            byCurrency.computeIfAbsent(currency, k -> new ArrayList<>()).add(balance);
+        }
+
+        List<BalanceSummaryResponse.CurrencyBalance> balances = new ArrayList<>();
+        for (Map.Entry<String, List<UserBalance>> entry : byCurrency.entrySet()) {
+            String currency = entry.getKey();
+            Money owed = Money.zero(currency);
+            Money toReceive = Money.zero(currency);
+            List<BalanceSummaryResponse.CounterpartyBalance> counterparties = new ArrayList<>();
+            for (UserBalance balance : entry.getValue()) {
+                Money amount = balance.getAmount() != null ? Money.of(balance.getAmount(), currency) : Money.zero(currency);
+                if (amount.isZero()) {
+                    continue;
+                }
+                if (amount.signum() > 0) {
+                    toReceive = toReceive.plus(amount);
+                } else {
+                    owed = owed.plus(amount.negate());
+                }
+                counterparties.add(BalanceSummaryResponse.CounterpartyBalance.builder()
+                        .userId(balance.getCounterpartyId())
+                        .amount(amount)
+                        .build());
+            }
+            balances.add(BalanceSummaryResponse.CurrencyBalance.builder()
+                    .currency(currency)
+                    .totalOwed(owed)
+                    .totalToReceive(toReceive)
+                    .counterparties(counterparties)
+                    .build());
+        }
+
+        return BalanceSummaryResponse.builder().balances(balances).build();
+    }
+
+    private void apply(Expense expense, Map<String, Money> shares, boolean reverse) {
+        if (shares.isEmpty()) {
+            return;
+        }
+        String payerId = expense.getPaidBy();
+        String currency = currencyOf(expense);
+        Instant now = Instant.now();
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserBalance.class);
+        boolean hasWrites = false;
+        for (Map.Entry<String, Money> entry : shares.entrySet()) {
+            Money amount = reverse ? entry.getValue().negate() : entry.getValue();
+            if (amount.isZero()) {
+                continue;
+            }
+            ops.upsert(pairQuery(payerId, entry.getKey(), currency),
+                    new Update().inc("amount", amount.toDecimal128()).set("updatedAt", now));
+            ops.upsert(pairQuery(entry.getKey(), payerId, currency),
+                    new Update().inc("amount", amount.negate().toDecimal128()).set("updatedAt", now));
+            hasWrites = true;
+        }
+        if (hasWrites) {
+            ops.execute();
+        }
+    }
+
+    private static boolean isRecorded(Expense expense) {
+        return Boolean.TRUE.equals(expense.getLedgerRecorded());
+    }
+
+    private static String currencyOf(Expense expense) {
+        return expense.getCurrency() != null ? expense.getCurrency() : "USD";
+    }
+
+    private Query pairQuery(String userId, String counterpartyId, String currency) {
+        return new Query(Criteria.where("userId").is(userId)
+                .and("counterpartyId").is(counterpartyId)
+                .and("currency").is(currency));
+    }
+}
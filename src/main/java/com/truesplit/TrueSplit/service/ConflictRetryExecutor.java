@@ -0,0 +1,111 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.TransientMongoDbException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an operation that lost an optimistic concurrency race: a conditional update that
+ * matched nothing ({@link ConflictException}), a stale {@code @Version} save
+ * ({@link OptimisticLockingFailureException}) or a transaction aborted by a write conflict
+ * ({@link TransientMongoDbException}). Every attempt must re-read the state it acts on.
+ * Waits grow exponentially with full jitter so callers that collided spread out.
+ * Inside a transaction the operation runs once: a retry would read the same snapshot, so the
+ * conflict is left to whoever retries the whole transaction.
+ */
+@Component
+@Slf4j
+public class ConflictRetryExecutor {
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public ConflictRetryExecutor(@Value("${concurrency.conflict-retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${concurrency.conflict-retry.base-backoff-ms:10}") long baseBackoffMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("concurrency.conflict-retry.max-attempts must be at least 1.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+    }
+
+    public <T> T call(String operation, Supplier<T> action) {
+        Counters stats = counters.computeIfAbsent(operation, k -> new Counters());
+        stats.calls.increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConflictException | OptimisticLockingFailureException | TransientMongoDbException ex) {
+                stats.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    stats.exhausted.increment();
+                    log.warn("{} still conflicting after {} attempts: {}", operation, attempt, ex.getMessage());
+                    throw ex;
+                }
+                pause(backoff(attempt));
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Full jitter: uniform in [0, base * 2^(attempt-1)]
+    long backoff(int attempt) {
+        long cap = baseBackoffMs << Math.min(attempt - 1, 16);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> byOperation = new TreeMap<>();
+        counters.forEach((operation, c) -> {
+            long calls = c.calls.sum();
+            long conflicts = c.conflicts.sum();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("calls", calls);
+            entry.put("conflicts", conflicts);
+            entry.put("exhausted", c.exhausted.sum());
+            entry.put("conflictRate", calls == 0 ? 0.0 : (double) conflicts / calls);
+            byOperation.put(operation, entry);
+        });
+        return byOperation;
+    }
+
+    private void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a conflicting update.");
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
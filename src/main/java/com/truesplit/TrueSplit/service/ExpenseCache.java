@@ -0,0 +1,122 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.cache.BoundedTtlCache;
+import com.truesplit.TrueSplit.cache.DistributedCache;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of assembled expense responses. {@code expense:{id}} holds the response and
+ * {@code expense:slug:{slug}} holds the id it belongs to; slugs never change, so invalidating an
+ * expense only has to drop the id entry.
+ * <p>
+ * A load that started before an invalidation of the same id is not written back: each id hashes
+ * to a generation counter that {@link #invalidate(String)} bumps, and {@link #get} only stores its
+ * result if the counter is unchanged.
+ */
+@Component
+public class ExpenseCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BoundedTtlCache<String, ExpenseResponse> responses;
+    private final BoundedTtlCache<String, String> slugs;
+    private final DistributedCache l2;
+    private final long ttlMillis;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ExpenseCache(DistributedCache l2,
+                        @Value("${cache.expense.max-size:10000}") int maxSize,
+                        @Value("${cache.expense.ttl-seconds:60}") long ttlSeconds) {
+        this.l2 = l2;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.responses = new BoundedTtlCache<>(maxSize, ttlMillis);
+        this.slugs = new BoundedTtlCache<>(maxSize, ttlMillis);
+    }
+
+    public ExpenseResponse get(String expenseId, Supplier<ExpenseResponse> loader) {
+        String key = idKey(expenseId);
+        ExpenseResponse response = responses.getIfPresent(key);
+        if (response != null) {
+            return response;
+        }
+
+        long generation = generations.get(stripe(expenseId));
+        response = l2.get(key, ExpenseResponse.class);
+        if (response == null) {
+            response = loader.get();
+            if (response == null) {
+                return null;
+            }
+        }
+        if (generations.get(stripe(expenseId)) == generation) {
+            store(response);
+        }
+        return response;
+    }
+
+    // Id for a slug seen before, or null
+    public String idForSlug(String slug) {
+        String key = slugKey(slug);
+        String expenseId = slugs.getIfPresent(key);
+        if (expenseId == null) {
+            expenseId = l2.get(key, String.class);
+            if (expenseId != null) {
+                slugs.put(key, expenseId);
+            }
+        }
+        return expenseId;
+    }
+
+    public void rememberSlug(String slug, String expenseId) {
+        String key = slugKey(slug);
+        slugs.put(key, expenseId);
+        l2.put(key, expenseId, ttlMillis);
+    }
+
+    public void put(ExpenseResponse response) {
+        store(response);
+    }
+
+    public void invalidate(String expenseId) {
+        generations.incrementAndGet(stripe(expenseId));
+        String key = idKey(expenseId);
+        responses.invalidate(key);
+        l2.evict(key);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("responses", responses.stats());
+        stats.put("slugs", slugs.stats());
+        stats.put("l2", l2.stats());
+        return stats;
+    }
+
+    private void store(ExpenseResponse response) {
+        String key = idKey(response.getId());
+        responses.put(key, response);
+        l2.put(key, response, ttlMillis);
+        if (response.getTitleSlug() != null) {
+            rememberSlug(response.getTitleSlug(), response.getId());
+        }
+    }
+
+    private static int stripe(String expenseId) {
+        return (expenseId.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+
+    private static String idKey(String expenseId) {
+        return "expense:" + expenseId;
+    }
+
+    private static String slugKey(String slug) {
+        return "expense:slug:" + slug;
+    }
+}
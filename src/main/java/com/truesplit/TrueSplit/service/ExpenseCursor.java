@@ -0,0 +1,36 @@
+package com.truesplit.TrueSplit.service;
+
+import lombok.Value;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for expense listings: the (expenseDateTime, _id) of the last item returned.
+ */
+@Value
+class ExpenseCursor {
+    Instant expenseDateTime;
+    String id;
+
+    String encode() {
+        String raw = expenseDateTime.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String id = raw.substring(separator + 1);
+            if (separator <= 0 || !ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new ExpenseCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))), id);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.cache.BloomFilter;
+import com.truesplit.TrueSplit.model.Expense;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides how {@code GET /expenses/{identifier}} is resolved. ObjectIds are recognised without a
+ * regex; slugs are checked against a Bloom filter of every existing slug, built at startup and fed
+ * by creates, so slugs that were never issued are rejected without a query.
+ * <p>
+ * A slug created on another instance is unknown here until a catch-up scan reads the newest
+ * expenses by {@code _id}. A filter miss triggers that scan at most once per
+ * {@code expense.slug-filter.catch-up-interval-ms}, which bounds the queries random slugs can cause.
+ * A miss that arrives while a scan is running waits for it, and goes to Mongo if the wait times
+ * out. What remains is a window of at most one interval: a slug created elsewhere after the last
+ * scan read the collection 404s here until a miss after the interval triggers the next scan.
+ */
+@Component
+@Slf4j
+public class ExpenseIdentifierRouter implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 5000;
+    // ObjectIds from different instances are only ordered to the second, and clocks drift
+    private static final long CATCH_UP_OVERLAP_SECONDS = 60;
+    private static final long CATCH_UP_WAIT_MS = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final long expectedSlugs;
+    private final double falsePositiveRate;
+    private final long catchUpIntervalNanos;
+
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder catchUps = new LongAdder();
+    private volatile BloomFilter slugs;
+    private volatile ObjectId newestSeen;
+    private volatile long lastCatchUp = System.nanoTime();
+
+    public ExpenseIdentifierRouter(MongoTemplate mongoTemplate,
+                                   @Value("${expense.slug-filter.expected-slugs:1000000}") long expectedSlugs,
+                                   @Value("${expense.slug-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${expense.slug-filter.catch-up-interval-ms:1000}") long catchUpIntervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.expectedSlugs = expectedSlugs;
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpIntervalNanos = catchUpIntervalMs * 1_000_000L;
+    }
+
+    public static boolean isObjectId(String identifier) {
+        if (identifier == null || identifier.length() != 24) {
+            return false;
+        }
+        for (int i = 0; i < 24; i++) {
+            char c = identifier.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // False only when no expense can have this slug; true until the filter is built
+    public boolean mightExist(String slug) {
+        BloomFilter filter = slugs;
+        if (filter == null || filter.mightContain(slug)) {
+            return true;
+        }
+        if (!catchUp(filter) || filter.mightContain(slug)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void recordSlug(String slug) {
+        BloomFilter filter = slugs;
+        if (filter != null && slug != null) {
+            filter.add(slug);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long existing = mongoTemplate.estimatedCount(Expense.class);
+        BloomFilter filter = new BloomFilter(Math.max(expectedSlugs, existing * 2), falsePositiveRate);
+        long start = System.nanoTime();
+        long added = addSlugsAfter(filter, null);
+        slugs = filter;
+        // Creates that happened while the filter was null were not recorded; pick them up now
+        addSlugsAfter(filter, catchUpStart());
+        log.info("[SLUG FILTER] Loaded {} slug(s) into {} bits in {} ms", added, filter.bitCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Map<String, Object> stats() {
+        BloomFilter filter = slugs;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", filter != null);
+        stats.put("bits", filter != null ? filter.bitCount() : 0L);
+        stats.put("rejectedSlugs", rejected.sum());
+        stats.put("catchUps", catchUps.sum());
+        return stats;
+    }
+
+    // False when the filter could not be brought up to date in time, so the caller should ask Mongo
+    private boolean catchUp(BloomFilter filter) {
+        if (System.nanoTime() - lastCatchUp < catchUpIntervalNanos) {
+            return true;
+        }
+        try {
+            // A scan already running may be the one that adds this slug; wait for it rather than reject
+            if (!catchUpLock.tryLock(CATCH_UP_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            if (System.nanoTime() - lastCatchUp < catchUpIntervalNanos) {
+                return true;
+            }
+            addSlugsAfter(filter, catchUpStart());
+            catchUps.increment();
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("[SLUG FILTER] Catch-up scan failed: {}", ex.getMessage());
+            return false;
+        } finally {
+            lastCatchUp = System.nanoTime();
+            catchUpLock.unlock();
+        }
+    }
+
+    private ObjectId catchUpStart() {
+        ObjectId newest = newestSeen;
+        if (newest == null) {
+            return null;
+        }
+        long seconds = Math.max(0, newest.getTimestamp() - CATCH_UP_OVERLAP_SECONDS);
+        return new ObjectId(String.format("%08x%016x", seconds, 0));
+    }
+
+    private long addSlugsAfter(BloomFilter filter, ObjectId after) {
+        long added = 0;
+        ObjectId lastId = after;
+        while (true) {
+            Query query = new Query();
+            if (lastId != null) {
+                query.addCriteria(Criteria.where("_id").gt(lastId));
+            }
+            query.fields().include("titleSlug");
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(BATCH_SIZE);
+            List<Expense> batch = mongoTemplate.find(query, Expense.class);
+            for (Expense expense : batch) {
+                if (expense.getTitleSlug() != null) {
+                    filter.add(expense.getTitleSlug());
+                    added++;
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = new ObjectId(batch.get(batch.size() - 1).getId());
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (lastId != null && (newestSeen == null || lastId.compareTo(newestSeen) > 0)) {
+            newestSeen = lastId;
+        }
+        return added;
+    }
+}
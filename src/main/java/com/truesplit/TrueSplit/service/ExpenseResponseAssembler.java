@@ -0,0 +1,159 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import com.truesplit.TrueSplit.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link ExpenseResponse} objects for a whole page of expenses at once.
+ * Participant state comes embedded in the expense (or from one {@code $in} query for expenses
+ * not yet migrated) and users from one {@code $in} query, so the number of round trips does
+ * not depend on the page size.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseResponseAssembler {
+
+    private final ParticipantStateStore participantState;
+    private final UserRepository userRepository;
+
+    public ExpenseResponse toResponse(Expense expense) {
+        return toResponses(List.of(expense)).get(0);
+    }
+
+    // For callers that already hold the statuses and users, e.g. right after a create
+    public ExpenseResponse toResponse(Expense expense, Collection<ParticipantStatus> statuses, Map<String, User> users) {
+        Map<String, ParticipantStatus> statusMap = new HashMap<>();
+        for (ParticipantStatus ps : statuses) {
+            statusMap.put(ps.getUserId(), ps);
+        }
+        return build(expense, statusMap, users);
+    }
+
+    public List<ExpenseResponse> toResponses(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Map<String, ParticipantStatus>> statusesByExpense = new HashMap<>();
+        participantState.findByExpenses(expenses).forEach((expenseId, statuses) -> {
+            Map<String, ParticipantStatus> byUser = new HashMap<>();
+            statuses.forEach(ps -> byUser.put(ps.getUserId(), ps));
+            statusesByExpense.put(expenseId, byUser);
+        });
+
+        Set<String> userIds = new HashSet<>();
+        for (Expense expense : expenses) {
+            userIds.add(expense.getPaidBy());
+            userIds.add(expense.getCreatedBy());
+            userIds.addAll(expense.getParticipants());
+        }
+        Map<String, User> userMap = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> userMap.put(user.getId(), user));
+
+        return expenses.stream()
+                .map(expense -> build(expense,
+                        statusesByExpense.getOrDefault(expense.getId(), Collections.emptyMap()),
+                        userMap))
+                .collect(Collectors.toList());
+    }
+
+    private ExpenseResponse build(Expense expense, Map<String, ParticipantStatus> statusMap, Map<String, User> userMap) {
+        String currency = expense.getCurrency() != null ? expense.getCurrency() : "USD";
+        ExpenseResponse.ExpenseResponseBuilder builder = ExpenseResponse.builder()
+                .id(expense.getId())
+                .title(expense.getTitle())
+                .titleSlug(expense.getTitleSlug())
+                .description(expense.getDescription())
+                .totalAmount(Money.of(expense.getTotalAmount(), currency))
+                .currency(expense.getCurrency())
+                .splitType(expense.getSplitType())
+                .expenseDateTime(expense.getExpenseDateTime())
+                .timezone(expense.getTimezone())
+                .status(expense.getStatus())
+                .createdAt(expense.getCreatedAt())
+                .updatedAt(expense.getUpdatedAt());
+
+        User paidByUser = userMap.get(expense.getPaidBy());
+        if (paidByUser != null) {
+            builder.paidBy(ExpenseResponse.PaidByInfo.builder()
+                    .id(paidByUser.getId())
+                    .name(paidByUser.getName())
+                    .email(paidByUser.getEmail())
+                    .build());
+        }
+
+        User createdByUser = userMap.get(expense.getCreatedBy());
+        if (createdByUser != null && !Objects.equals(expense.getCreatedBy(), expense.getPaidBy())) {
+            builder.createdBy(ExpenseResponse.CreatedByInfo.builder()
+                    .id(createdByUser.getId())
+                    .name(createdByUser.getName())
+                    .email(createdByUser.getEmail())
+                    .build());
+        }
+
+        List<ExpenseResponse.ParticipantInfo> participantInfos = expense.getParticipants().stream()
+                .map(participantId -> {
+                    User user = userMap.get(participantId);
+                    if (user == null) return null;
+                    return ExpenseResponse.ParticipantInfo.builder()
+                            .id(user.getId())
+                            .name(user.getName())
+                            .avatar(user.getPicture())
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        builder.participants(participantInfos);
+
+        if (expense.getManualSplits() != null) {
+            List<ExpenseResponse.ManualSplitInfo> splitInfos = expense.getManualSplits().stream()
+                    .map(split -> ExpenseResponse.ManualSplitInfo.builder()
+                            .userId(split.getUserId())
+                            .amount(Money.of(split.getAmount(), currency))
+                            .build())
+                    .collect(Collectors.toList());
+            builder.manualSplits(splitInfos);
+        }
+
+        if (!statusMap.isEmpty()) {
+            List<ExpenseResponse.ParticipantSettlementInfo> settlementInfos = expense.getParticipants().stream()
+                    .map(participantId -> {
+                        ParticipantStatus ps = statusMap.get(participantId);
+                        if (ps == null) return null;
+                        return ExpenseResponse.ParticipantSettlementInfo.builder()
+                                .userId(ps.getUserId())
+                                .status(ps.getStatus())
+                                .settled("SETTLED".equals(ps.getStatus()))
+                                .settledAt(ps.getSettledAt())
+                                .build();
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            builder.participantSettlement(settlementInfos);
+        }
+
+        if (expense.getImages() != null && !expense.getImages().isEmpty()) {
+            List<ExpenseResponse.ImageInfo> imageInfos = expense.getImages().stream()
+                    .map(img -> ExpenseResponse.ImageInfo.builder()
+                            .url(img.getUrl())
+                            .thumbnailUrl(img.getThumbnailUrl())
+                            .originalName(img.getOriginalName())
+                            .size(img.getSize())
+                            .uploadedAt(img.getUploadedAt())
+                            .build())
+                    .collect(Collectors.toList());
+            builder.images(imageInfos);
+        }
+
+        return builder.build();
+    }
+}
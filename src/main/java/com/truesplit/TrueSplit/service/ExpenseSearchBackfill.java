@@ -0,0 +1,77 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * One-off fill of {@code participantNames} on expenses created before search used the text index.
+ * Enabled with {@code search.backfill-on-startup=true}; runs in batches until nothing is left.
+ */
+@Component
+@Slf4j
+public class ExpenseSearchBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+
+    public ExpenseSearchBackfill(MongoTemplate mongoTemplate, UserRepository userRepository,
+                                 @Value("${search.backfill-on-startup:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long updated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where("participantNames").exists(false)).limit(BATCH_SIZE);
+            query.fields().include("participants");
+            List<Expense> batch = mongoTemplate.find(query, Expense.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Set<String> userIds = new HashSet<>();
+            batch.forEach(expense -> userIds.addAll(expense.getParticipants()));
+            Map<String, String> names = new HashMap<>();
+            for (User user : userRepository.findAllById(userIds)) {
+                names.put(user.getId(), user.getName());
+            }
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+            for (Expense expense : batch) {
+                List<String> participantNames = new ArrayList<>();
+                for (String participantId : expense.getParticipants()) {
+                    String name = names.get(participantId);
+                    if (name != null) participantNames.add(name);
+                }
+                ops.updateOne(new Query(Criteria.where("_id").is(expense.getId())),
+                        new Update().set("participantNames", participantNames));
+            }
+            ops.execute();
+            updated += batch.size();
+        }
+        log.info("[SEARCH BACKFILL] Added participant names to {} expense(s)", updated);
+    }
+}
@@ -2,34 +2,44 @@ package com.truesplit.TrueSplit.service;
 
 import com.truesplit.TrueSplit.Repository.ExpenseRepository;
 import com.truesplit.TrueSplit.Repository.GroupMemberRepository;
-import com.truesplit.TrueSplit.Repository.ParticipantStatusRepository;
 import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.cache.BoundedTtlCache;
 import com.truesplit.TrueSplit.dto.request.CreateExpenseRequest;
 import com.truesplit.TrueSplit.dto.request.ImageDto;
 import com.truesplit.TrueSplit.dto.request.ParticipantActionDto;
+import com.truesplit.TrueSplit.dto.response.CursorPageResponse;
 import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
 import com.truesplit.TrueSplit.dto.response.RecentExpenseResponse;
+import com.truesplit.TrueSplit.exception.ConflictException;
 import com.truesplit.TrueSplit.exception.NotFoundException;
 import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ExpenseEventType;
 import com.truesplit.TrueSplit.model.GroupMember;
+import com.truesplit.TrueSplit.model.Money;
 import com.truesplit.TrueSplit.model.ParticipantStatus;
 import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.model.UserTimelineEntry;
+import com.truesplit.TrueSplit.service.outbox.OutboxPublisher;
+import com.truesplit.TrueSplit.service.split.SplitCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -38,7 +48,7 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,20 +58,28 @@ public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
-    private final ParticipantStatusRepository participantStatusRepository;
+    private final ParticipantStateStore participantState;
+    private final ConflictRetryExecutor conflictRetry;
     private final GroupMemberRepository groupMemberRepository;
     private final SlugGeneratorService slugGenerator;
     private final MongoTemplate mongoTemplate;
+    private final ExpenseResponseAssembler responseAssembler;
+    private final BalanceLedgerService balanceLedger;
+    private final SplitCalculator splitCalculator;
+    private final ExpenseCache expenseCache;
+    private final ExpenseIdentifierRouter identifierRouter;
+    private final OutboxPublisher outbox;
+    private final TransactionOperations expenseTransactions;
 
     private static final List<String> DEFAULT_STATUSES = List.of("PENDING", "ACTIVE", "SETTLED", "CANCELLED");
     private static final Set<String> VALID_STATUSES = Set.of("PENDING", "ACTIVE", "SETTLED", "CANCELLED");
+    private static final int MAX_SLUG_ATTEMPTS = 5;
+    private static final int RECENT_EXPENSES = 10;
 
-    @Transactional
-    public ExpenseResponse createExpense(CreateExpenseRequest request, String currentUserEmail) {
+    // Totals are only shown on request, so a short-lived cache is enough to absorb repeated polling
+    private final BoundedTtlCache<String, Long> expenseCountCache = new BoundedTtlCache<>(10_000, 30_000);
 
-        User currentUser = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new NotFoundException("Your account could not be found. Please sign in again."));
-        String currentUserId = currentUser.getId();
+    public ExpenseResponse createExpense(CreateExpenseRequest request, String currentUserId) {
 
         List<String> participants = new ArrayList<>(new LinkedHashSet<>(request.getParticipants()));
 
@@ -69,10 +87,13 @@ public class ExpenseService {
             throw new IllegalArgumentException("The payer must be included as a participant.");
         }
 
-        for (String participantId : participants) {
-            if (!userRepository.existsById(participantId)) {
-                throw new IllegalArgumentException("One or more participants could not be found.");
-            }
+        // One $in lookup validates every participant and also serves the names and the response
+        Set<String> userIds = new HashSet<>(participants);
+        userIds.add(currentUserId);
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+        if (!users.keySet().containsAll(participants)) {
+            throw new IllegalArgumentException("One or more participants could not be found.");
         }
 
         if (request.getGroupId() != null && !request.getGroupId().isBlank()) {
@@ -81,8 +102,9 @@ public class ExpenseService {
             if (!gm.isHasPermission()) {
                 throw new SecurityException("You do not have permission to create expenses for this group.");
             }
-            List<String> memberIds = groupMemberRepository.findByGroupId(request.getGroupId())
-                    .stream().map(GroupMember::getUserId).collect(Collectors.toList());
+            // Only the participants' own membership rows, checked through a set
+            Set<String> memberIds = groupMemberRepository.findByGroupIdAndUserIdIn(request.getGroupId(), participants)
+                    .stream().map(GroupMember::getUserId).collect(Collectors.toSet());
             for (String pid : participants) {
                 if (!memberIds.contains(pid)) {
                     throw new IllegalArgumentException("Participant " + pid + " is not a member of the group.");
@@ -90,46 +112,17 @@ public class ExpenseService {
             }
         }
 
-        List<Expense.ManualSplit> manualSplits = null;
-        if ("MANUAL".equals(request.getSplitType())) {
-            if (request.getManualSplits() == null || request.getManualSplits().isEmpty()) {
-                throw new IllegalArgumentException("Please add split amounts for a manual split.");
-            }
-
-            BigDecimal sum = request.getManualSplits().stream()
-                    .map(ms -> BigDecimal.valueOf(ms.getAmount()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal total = BigDecimal.valueOf(request.getTotalAmount());
+        String currency = request.getCurrency() != null ? request.getCurrency() : "USD";
+        Money total = Money.of(BigDecimal.valueOf(request.getTotalAmount()), currency);
 
-            if (sum.compareTo(total) != 0) {
-                throw new IllegalArgumentException("Manual split amounts must add up to the total amount.");
-            }
-
-            manualSplits = request.getManualSplits().stream()
-                    .map(ms -> {
-                        Expense.ManualSplit split = new Expense.ManualSplit();
-                        split.setUserId(ms.getUserId());
-                        split.setAmount(new Decimal128(BigDecimal.valueOf(ms.getAmount())));
-                        return split;
-                    })
-                    .collect(Collectors.toList());
-        } else if ("EQUAL".equals(request.getSplitType())) {
-            int participantCount = participants.size();
-            BigDecimal totalAmount = BigDecimal.valueOf(request.getTotalAmount());
-            BigDecimal sharePerPerson = totalAmount.divide(BigDecimal.valueOf(participantCount), 2, RoundingMode.HALF_UP);
-            BigDecimal lastShare = totalAmount.subtract(sharePerPerson.multiply(BigDecimal.valueOf(participantCount - 1)));
-
-            manualSplits = new ArrayList<>();
-            for (int i = 0; i < participants.size(); i++) {
-                String participantId = participants.get(i);
-                BigDecimal amount = (i == participantCount - 1) ? lastShare : sharePerPerson;
-
-                Expense.ManualSplit split = new Expense.ManualSplit();
-                split.setUserId(participantId);
-                split.setAmount(new Decimal128(amount));
-                manualSplits.add(split);
-            }
+        long[] parts = splitCalculator.split(request.getSplitType(), total.getMinor(), currency,
+                participants, request.getManualSplits());
+        List<Expense.ManualSplit> manualSplits = new ArrayList<>(parts.length);
+        Map<String, Money> shares = new HashMap<>();
+        for (int i = 0; i < parts.length; i++) {
+            Money share = Money.ofMinor(parts[i], currency);
+            manualSplits.add(toSplit(participants.get(i), share));
+            shares.put(participants.get(i), share);
         }
 
         String slug = slugGenerator.generateUniqueSlug(request.getTitle());
@@ -145,49 +138,72 @@ public class ExpenseService {
         expense.setTitle(request.getTitle());
         expense.setTitleSlug(slug);
         expense.setDescription(request.getDescription());
-        expense.setTotalAmount(new Decimal128(BigDecimal.valueOf(request.getTotalAmount())));
-        expense.setCurrency(request.getCurrency() != null ? request.getCurrency() : "USD");
+        expense.setTotalAmount(total.toDecimal128());
+        expense.setCurrency(currency);
         expense.setSplitType(request.getSplitType());
         expense.setPaidBy(request.getPaidBy());
         expense.setCreatedBy(currentUserId);
+        expense.setGroupId(request.getGroupId() != null && !request.getGroupId().isBlank() ? request.getGroupId() : null);
         expense.setParticipants(participants);
+        expense.setParticipantNames(participants.stream()
+                .map(id -> users.get(id).getName())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
         expense.setManualSplits(manualSplits);
         expense.setExpenseDateTime(expenseDateTime);
         expense.setTimezone(zoneId.getId());
         expense.setStatus("PENDING");
-        expense.setImages(new ArrayList<>());
+        expense.setImages(request.getImages() != null
+                ? request.getImages().stream().map(this::convertToImageEntity).collect(Collectors.toList())
+                : new ArrayList<>());
         expense.setCreatedAt(now);
         expense.setUpdatedAt(now);
+        expense.setLedgerRecorded(true);
 
-        Expense savedExpense = expenseRepository.save(expense);
-
+        List<ParticipantStatus> statuses = new ArrayList<>(participants.size());
         for (String participantId : participants) {
             ParticipantStatus status = new ParticipantStatus();
-            status.setExpenseId(savedExpense.getId());
             status.setUserId(participantId);
             status.setStatus(participantId.equals(request.getPaidBy()) ? "ACCEPTED" : "PENDING");
-            BigDecimal share = manualSplits.stream()
-                    .filter(s -> s.getUserId().equals(participantId))
-                    .map(s -> s.getAmount().bigDecimalValue())
-                    .findFirst()
-                    .orElse(BigDecimal.ZERO);
-            status.setShareAmount(share);
+            status.setShareAmount(shares.getOrDefault(participantId, Money.zero(currency)).toBigDecimal());
             status.setSettledAt(null);
             status.setCreatedAt(now);
             status.setUpdatedAt(now);
-            participantStatusRepository.save(status);
+            statuses.add(status);
         }
+        participantState.embed(expense, statuses);
 
-        if (request.getImages() != null && !request.getImages().isEmpty()) {
-            List<Expense.Image> images = request.getImages().stream()
-                    .map(this::convertToImageEntity)
-                    .collect(Collectors.toList());
-            savedExpense.setImages(images);
-            savedExpense.setUpdatedAt(now);
-            savedExpense = expenseRepository.save(savedExpense);
-        }
+        Expense savedExpense = insertWithUniqueSlug(expense, statuses, currentUserId);
+        identifierRouter.recordSlug(savedExpense.getTitleSlug());
+
+        ExpenseResponse response = responseAssembler.toResponse(savedExpense, statuses, users);
+        expenseCache.put(response);
+        return response;
+    }
 
-        return convertToResponse(savedExpense);
+    // The expense, its participant rows, ledger rows and created event commit together.
+    // A counter can lag behind existing slugs (one from before seeding, or a title whose own slug
+    // looks like base-n); the duplicate aborts the transaction, so move past them and run it again
+    private Expense insertWithUniqueSlug(Expense expense, List<ParticipantStatus> statuses, String actorId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return conflictRetry.call("createExpense", () -> expenseTransactions.execute(tx -> {
+                    Expense saved = expenseRepository.insert(expense);
+                    participantState.created(saved, statuses);
+                    balanceLedger.recordExpense(saved);
+                    outbox.publish(ExpenseEventType.EXPENSE_CREATED, saved, actorId, null);
+                    return saved;
+                }));
+            } catch (DuplicateKeyException ex) {
+                if (!SlugGeneratorService.isSlugCollision(ex)) {
+                    throw ex;
+                }
+                if (attempt >= MAX_SLUG_ATTEMPTS) {
+                    throw new IllegalStateException("Could not allocate a unique slug for this expense.", ex);
+                }
+                expense.setTitleSlug(slugGenerator.generateSlugAfterCollision(expense.getTitle()));
+            }
+        }
     }
 
     private Expense.Image convertToImageEntity(ImageDto dto) {
@@ -200,8 +216,11 @@ public class ExpenseService {
         return image;
     }
 
-    @Transactional
     public ParticipantStatus handleParticipantAction(String expenseId, String userId, ParticipantActionDto dto) {
+        return callTransition("handleParticipantAction", expenseId, () -> doHandleParticipantAction(expenseId, userId, dto));
+    }
+
+    private ParticipantStatus doHandleParticipantAction(String expenseId, String userId, ParticipantActionDto dto) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
         if (!"PENDING".equals(expense.getStatus())) {
@@ -211,39 +230,46 @@ public class ExpenseService {
             throw new IllegalArgumentException("Payer cannot accept or reject their own expense.");
         }
 
-        ParticipantStatus status = participantStatusRepository.findByExpenseIdAndUserId(expenseId, userId)
+        ParticipantStatus status = participantState.find(expense, userId)
                 .orElseThrow(() -> new IllegalArgumentException("User is not a participant of this expense."));
-        if (!"PENDING".equals(status.getStatus())) {
+        String action = dto.getAction().toUpperCase();
+        // A rejection whose split update lost every retry is finished rather than refused
+        boolean resumingReject = "REJECT".equals(action) && "REJECTED".equals(status.getStatus())
+                && expense.getParticipants().contains(userId);
+        if (!"PENDING".equals(status.getStatus()) && !resumingReject) {
             throw new IllegalArgumentException("You have already " + status.getStatus().toLowerCase() + " this expense.");
         }
 
-        String action = dto.getAction().toUpperCase();
         if ("ACCEPT".equals(action)) {
             status.setStatus("ACCEPTED");
             status.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(status);
+            participantState.update(expense, status, "PENDING");
+            outbox.publish(ExpenseEventType.PARTICIPANT_ACCEPTED, expense, userId, userId);
 
             // Check if all remaining (non-rejected) participants have accepted
-            List<ParticipantStatus> allStatuses = participantStatusRepository.findByExpenseId(expenseId);
+            List<ParticipantStatus> allStatuses = participantState.findByExpense(expense);
             boolean allRemainingAccepted = allStatuses.stream()
                     .filter(s -> !"REJECTED".equals(s.getStatus()))
                     .allMatch(s -> "ACCEPTED".equals(s.getStatus()));
 
             if (allRemainingAccepted) {
-                expense.setStatus("ACTIVE");
-                expense.setUpdatedAt(Instant.now());
-                expenseRepository.save(expense);
+                activate(expense);
             }
         } else if ("REJECT".equals(action)) {
-            status.setStatus("REJECTED");
-            status.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(status);
+            if (!resumingReject) {
+                status.setStatus("REJECTED");
+                status.setUpdatedAt(Instant.now());
+                participantState.update(expense, status, "PENDING");
 
-            removeParticipantAndRecalculate(expense, userId);
+                balanceLedger.release(expense, userId, status.getShareAmount());
+            }
+
+            expense = removeParticipant(expense.getId(), userId);
+            // Published once the split is updated, so consumers of the event read the new shares
+            outbox.publish(ExpenseEventType.PARTICIPANT_REJECTED, expense, userId, userId);
 
             // After rejection, check if all remaining participants have accepted
-            List<ParticipantStatus> remainingStatuses = participantStatusRepository.findByExpenseId(expenseId)
-                    .stream()
+            List<ParticipantStatus> remainingStatuses = participantState.findByExpense(expense).stream()
                     .filter(s -> !"REJECTED".equals(s.getStatus()))
                     .collect(Collectors.toList());
 
@@ -251,16 +277,13 @@ public class ExpenseService {
                     .allMatch(s -> "ACCEPTED".equals(s.getStatus()));
 
             if (allRemainingAccepted && remainingStatuses.size() > 1) {
-                expense.setStatus("ACTIVE");
-                expense.setUpdatedAt(Instant.now());
-                expenseRepository.save(expense);
+                activate(expense);
             }
 
             // If only the payer remains, cancel the expense
-            if (remainingStatuses.size() == 1 && remainingStatuses.get(0).getUserId().equals(expense.getPaidBy())) {
-                expense.setStatus("CANCELLED");
-                expense.setUpdatedAt(Instant.now());
-                expenseRepository.save(expense);
+            if (remainingStatuses.size() == 1 && remainingStatuses.get(0).getUserId().equals(expense.getPaidBy())
+                    && tryTransitionExpense(expense, Criteria.where("status").is("PENDING"), "CANCELLED", Instant.now())) {
+                outbox.publish(ExpenseEventType.EXPENSE_CANCELLED, expense, null, null);
             }
         } else {
             throw new IllegalArgumentException("Action must be ACCEPT or REJECT.");
@@ -269,19 +292,35 @@ public class ExpenseService {
         return status;
     }
 
+    // The split change is a versioned save of a fresh read, never of the copy the status update
+    // refreshed: that one carries the new version but the participants and splits read before it.
+    // If another participant's change lands first, reload and redo it.
+    private Expense removeParticipant(String expenseId, String userId) {
+        return conflictRetry.call("expense.removeParticipant", () -> {
+            Expense expense = expenseRepository.findById(expenseId)
+                    .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
+            if (expense.getParticipants().contains(userId)) {
+                removeParticipantAndRecalculate(expense, userId);
+            }
+            return expense;
+        });
+    }
+
     private void removeParticipantAndRecalculate(Expense expense, String userId) {
         expense.getParticipants().remove(userId);
+        expense.setParticipantNames(participantNames(expense.getParticipants()));
 
         List<Expense.ManualSplit> currentSplits = expense.getManualSplits();
+        String currency = currencyOf(expense);
 
         // ─── EQUAL Split ──────────────────────────────────────────────────────
         if ("EQUAL".equals(expense.getSplitType())) {
             // 1. Get the rejected participant's share
-            BigDecimal rejectedShare = currentSplits.stream()
+            Money rejectedShare = currentSplits.stream()
                     .filter(s -> s.getUserId().equals(userId))
-                    .map(s -> s.getAmount().bigDecimalValue())
+                    .map(s -> Money.of(s.getAmount(), currency))
                     .findFirst()
-                    .orElse(BigDecimal.ZERO);
+                    .orElse(Money.zero(currency));
 
             // 2. Remove rejected participant from splits
             currentSplits.removeIf(s -> s.getUserId().equals(userId));
@@ -291,64 +330,53 @@ public class ExpenseService {
                     .filter(s -> s.getUserId().equals(expense.getPaidBy()))
                     .findFirst()
                     .orElseThrow(() -> new IllegalStateException("Payer split not found."));
-            BigDecimal newPayerShare = payerSplit.getAmount().bigDecimalValue().add(rejectedShare);
-            payerSplit.setAmount(new Decimal128(newPayerShare));
+            Money newPayerShare = Money.of(payerSplit.getAmount(), currency).plus(rejectedShare);
+            payerSplit.setAmount(newPayerShare.toDecimal128());
 
-            // 4. Update payer's ParticipantStatus
-            ParticipantStatus payerStatus = participantStatusRepository
-                    .findByExpenseIdAndUserId(expense.getId(), expense.getPaidBy())
-                    .orElseThrow(() -> new IllegalStateException("Payer status not found."));
-            payerStatus.setShareAmount(newPayerShare);
-            payerStatus.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(payerStatus);
+            // 4. Update payer's participant state
+            participantState.setShare(expense, expense.getPaidBy(), newPayerShare, Instant.now());
 
             // 5. Save updated splits
             expense.setManualSplits(currentSplits);
 
         } else {
-            BigDecimal rejectedShare = currentSplits.stream()
+            Money rejectedShare = currentSplits.stream()
                     .filter(s -> s.getUserId().equals(userId))
-                    .map(s -> s.getAmount().bigDecimalValue())
-                    .findFirst().orElse(BigDecimal.ZERO);
+                    .map(s -> Money.of(s.getAmount(), currency))
+                    .findFirst().orElse(Money.zero(currency));
 
             Expense.ManualSplit payerSplit = currentSplits.stream()
                     .filter(s -> s.getUserId().equals(expense.getPaidBy()))
                     .findFirst()
                     .orElseThrow(() -> new IllegalStateException("Payer split not found."));
-            BigDecimal newPayerShare = payerSplit.getAmount().bigDecimalValue().add(rejectedShare);
-            payerSplit.setAmount(new Decimal128(newPayerShare));
+            Money newPayerShare = Money.of(payerSplit.getAmount(), currency).plus(rejectedShare);
+            payerSplit.setAmount(newPayerShare.toDecimal128());
 
             currentSplits.removeIf(s -> s.getUserId().equals(userId));
             expense.setManualSplits(currentSplits);
 
-            ParticipantStatus payerStatus = participantStatusRepository
-                    .findByExpenseIdAndUserId(expense.getId(), expense.getPaidBy())
-                    .orElseThrow(() -> new IllegalStateException("Payer status not found."));
-            payerStatus.setShareAmount(newPayerShare);
-            payerStatus.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(payerStatus);
+            participantState.setShare(expense, expense.getPaidBy(), newPayerShare, Instant.now());
         }
         expense.setUpdatedAt(Instant.now());
         expenseRepository.save(expense);
     }
 
-    private List<Expense.ManualSplit> calculateEqualSplits(BigDecimal totalAmount, List<String> participants) {
-        int count = participants.size();
-        BigDecimal share = totalAmount.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
-        BigDecimal remainder = totalAmount.subtract(share.multiply(BigDecimal.valueOf(count)));
-        List<Expense.ManualSplit> splits = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            BigDecimal amount = (i == count - 1) ? share.add(remainder) : share;
-            Expense.ManualSplit split = new Expense.ManualSplit();
-            split.setUserId(participants.get(i));
-            split.setAmount(new Decimal128(amount));
-            splits.add(split);
-        }
-        return splits;
+    private Expense.ManualSplit toSplit(String userId, Money amount) {
+        Expense.ManualSplit split = new Expense.ManualSplit();
+        split.setUserId(userId);
+        split.setAmount(amount.toDecimal128());
+        return split;
+    }
+
+    private static String currencyOf(Expense expense) {
+        return expense.getCurrency() != null ? expense.getCurrency() : "USD";
     }
 
-    @Transactional
     public void settleExpense(String expenseId, String userId) {
+        runTransition("settleExpense", expenseId, () -> doSettleExpense(expenseId, userId));
+    }
+
+    private void doSettleExpense(String expenseId, String userId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
         if (!expense.getPaidBy().equals(userId)) {
@@ -358,20 +386,29 @@ public class ExpenseService {
             throw new IllegalArgumentException("Expense cannot be settled in its current state.");
         }
 
-        List<ParticipantStatus> statuses = participantStatusRepository.findByExpenseId(expenseId);
-        for (ParticipantStatus ps : statuses) {
-            ps.setStatus("SETTLED");
-            ps.setSettledAt(Instant.now());
-            ps.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(ps);
-        }
-        expense.setStatus("SETTLED");
-        expense.setUpdatedAt(Instant.now());
-        expenseRepository.save(expense);
+        List<ParticipantStatus> unsettled = participantState.findByExpense(expense).stream()
+                .filter(ps -> !"SETTLED".equals(ps.getStatus()))
+                .collect(Collectors.toList());
+        List<ParticipantStatus> outstanding = unsettled.stream()
+                .filter(ps -> !"REJECTED".equals(ps.getStatus()))
+                .collect(Collectors.toList());
+
+        Instant now = Instant.now();
+        transitionExpense(expense, Criteria.where("status").in("ACTIVE", "PENDING"), "SETTLED", now);
+        Set<String> applied = participantState.transition(expense, unsettled,
+                List.of("PENDING", "ACCEPTED", "REJECTED", "PAYMENT_REQUESTED"), "SETTLED", now);
+
+        balanceLedger.releaseAll(expense, outstanding.stream()
+                .filter(ps -> applied.contains(ps.getUserId()))
+                .collect(Collectors.toList()));
+        outbox.publish(ExpenseEventType.EXPENSE_SETTLED, expense, userId, null);
     }
 
-    @Transactional
     public void cancelExpense(String expenseId, String userId) {
+        runTransition("cancelExpense", expenseId, () -> doCancelExpense(expenseId, userId));
+    }
+
+    private void doCancelExpense(String expenseId, String userId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -383,63 +420,149 @@ public class ExpenseService {
             throw new IllegalArgumentException("Expense cannot be cancelled in its current state.");
         }
 
-        List<ParticipantStatus> statuses = participantStatusRepository.findByExpenseId(expenseId);
+        List<ParticipantStatus> statuses = participantState.findByExpense(expense);
         boolean anySettled = statuses.stream().anyMatch(s -> "SETTLED".equals(s.getStatus()));
         if (anySettled) {
             throw new IllegalArgumentException("Cannot cancel expense because one or more participants have already settled.");
         }
 
-        expense.setStatus("CANCELLED");
-        expense.setUpdatedAt(Instant.now());
-        expenseRepository.save(expense);
+        List<ParticipantStatus> outstanding = statuses.stream()
+                .filter(ps -> !"REJECTED".equals(ps.getStatus()))
+                .collect(Collectors.toList());
 
-        for (ParticipantStatus ps : statuses) {
-            if (!"REJECTED".equals(ps.getStatus())) {
-                ps.setStatus("CANCELLED");
-                ps.setUpdatedAt(Instant.now());
-                participantStatusRepository.save(ps);
-            }
-        }
+        Instant now = Instant.now();
+        transitionExpense(expense, Criteria.where("status").nin("SETTLED", "CANCELLED"), "CANCELLED", now);
+        Set<String> applied = participantState.transition(expense, outstanding,
+                List.of("PENDING", "ACCEPTED", "PAYMENT_REQUESTED"), "CANCELLED", now);
+
+        balanceLedger.releaseAll(expense, outstanding.stream()
+                .filter(ps -> applied.contains(ps.getUserId()))
+                .collect(Collectors.toList()));
+        outbox.publish(ExpenseEventType.EXPENSE_CANCELLED, expense, userId, null);
     }
 
     public ExpenseResponse getExpense(String identifier) {
-        Expense expense;
+        String expenseId;
 
-        if (identifier.matches("^[0-9a-fA-F]{24}$")) {
-            expense = expenseRepository.findById(identifier)
-                    .orElseThrow(() -> new NotFoundException("Expense not found."));
+        if (ExpenseIdentifierRouter.isObjectId(identifier)) {
+            expenseId = identifier;
         } else {
-            expense = expenseRepository.findByTitleSlug(identifier)
-                    .orElseThrow(() -> new NotFoundException("Expense not found."));
+            expenseId = expenseCache.idForSlug(identifier);
+            if (expenseId == null) {
+                if (!identifierRouter.mightExist(identifier)) {
+                    throw new NotFoundException("Expense not found.");
+                }
+                expenseId = findIdBySlug(identifier);
+                expenseCache.rememberSlug(identifier, expenseId);
+            }
         }
 
-        return convertToResponse(expense);
+        String id = expenseId;
+        ExpenseResponse response = expenseCache.get(id, () -> expenseRepository.findById(id)
+                .map(responseAssembler::toResponse)
+                .orElse(null));
+        if (response == null) {
+            throw new NotFoundException("Expense not found.");
+        }
+        return response;
     }
 
-    public List<RecentExpenseResponse> getRecentExpenses(String currentUserEmail) {
-        User currentUser = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new NotFoundException("Your account could not be found. Please sign in again."));
+    private String findIdBySlug(String slug) {
+        Query query = new Query(Criteria.where("titleSlug").is(slug));
+        query.fields().include("_id");
+        Expense expense = mongoTemplate.findOne(query, Expense.class);
+        if (expense == null) {
+            throw new NotFoundException("Expense not found.");
+        }
+        return expense.getId();
+    }
 
-        return expenseRepository.findExpensesByUser(
-                        currentUser.getId(),
-                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "expenseDateTime"))
-                )
+    // One read of the user's precomputed timeline; see TimelineProjector
+    public List<RecentExpenseResponse> getRecentExpenses(String currentUserId) {
+        Query query = new Query(Criteria.where("userId").is(currentUserId))
+                .with(Sort.by(Sort.Direction.DESC, "time"))
+                .limit(RECENT_EXPENSES);
+        return mongoTemplate.find(query, UserTimelineEntry.class)
                 .stream()
-                .map(expense -> convertToRecentResponse(expense, currentUser.getId()))
+                .map(this::toRecentResponse)
                 .collect(Collectors.toList());
     }
 
     public Page<ExpenseResponse> getUserExpenses(String userId, Pageable pageable, String statusFilter, String search) {
-        List<String> statuses;
-        if (statusFilter == null || statusFilter.isBlank()) {
-            statuses = DEFAULT_STATUSES;
-        } else {
-            String trimmed = statusFilter.trim().toUpperCase();
-            if (!VALID_STATUSES.contains(trimmed)) {
-                throw new IllegalArgumentException("Invalid status filter: " + statusFilter);
-            }
-            statuses = List.of(trimmed);
+        Query query = buildListQuery(userId, statusFilter, search);
+        if (query instanceof TextQuery textQuery) {
+            textQuery.sortByScore();
         }
+        query.with(pageable);
+
+        long total = mongoTemplate.count(query, Expense.class);
+        List<Expense> expenses = mongoTemplate.find(query, Expense.class);
+        List<ExpenseResponse> responseList = responseAssembler.toResponses(expenses);
+
+        return new PageImpl<>(responseList, pageable, total);
+    }
+
+    // Keyset page ordered by (expenseDateTime, _id) descending; no skip and no count query
+    public CursorPageResponse<ExpenseResponse> getUserExpensesByCursor(String userId, String cursor, int size,
+                                                                       String statusFilter, String search) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100.");
+        }
+        Query query = buildListQuery(userId, statusFilter, search);
+        if (cursor != null && !cursor.isBlank()) {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("expenseDateTime").lt(position.getExpenseDateTime()),
+                    new Criteria().andOperator(
+                            Criteria.where("expenseDateTime").is(position.getExpenseDateTime()),
+                            Criteria.where("_id").lt(new ObjectId(position.getId())))
+            ));
+        }
+
+        query.with(Sort.by(Sort.Direction.DESC, "expenseDateTime").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(size + 1);
+        List<Expense> expenses = mongoTemplate.find(query, Expense.class);
+
+        boolean hasMore = expenses.size() > size;
+        if (hasMore) {
+            expenses = expenses.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Expense last = expenses.get(expenses.size() - 1);
+            nextCursor = new ExpenseCursor(last.getExpenseDateTime(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<ExpenseResponse>builder()
+                .items(responseAssembler.toResponses(expenses))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Served by the (groupId, status, expenseDateTime, _id) index; no scan over members' expenses
+    public Page<ExpenseResponse> getGroupExpenses(String groupId, String userId, Pageable pageable, String statusFilter) {
+        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, userId)) {
+            throw new IllegalArgumentException("You are not a member of this group or group not found");
+        }
+        Query query = new Query(Criteria.where("groupId").is(groupId)
+                .and("status").in(resolveStatuses(statusFilter)));
+        long total = mongoTemplate.count(query, Expense.class);
+        query.with(pageable);
+        List<Expense> expenses = mongoTemplate.find(query, Expense.class);
+
+        return new PageImpl<>(responseAssembler.toResponses(expenses), pageable, total);
+    }
+
+    public long countUserExpenses(String userId, String statusFilter, String search) {
+        String key = userId + "|" + statusFilter + "|" + search;
+        return expenseCountCache.get(key, k ->
+                mongoTemplate.count(buildListQuery(userId, statusFilter, search), Expense.class));
+    }
+
+    // With a search term this is a $text query over title, description and participant names
+    static Query buildListQuery(String userId, String statusFilter, String search) {
+        List<String> statuses = resolveStatuses(statusFilter);
 
         Criteria baseCriteria = new Criteria().orOperator(
             Criteria.where("createdBy").is(userId),
@@ -451,41 +574,29 @@ public class ExpenseService {
         Criteria finalCriteria = new Criteria().andOperator(baseCriteria, statusCriteria);
 
         if (search != null && !search.isBlank()) {
-            String searchRegex = search.trim();
-            String escapedRegex = Pattern.quote(searchRegex);
-            
-            List<String> matchingUserIds = userRepository.findByNameContainingIgnoreCase(searchRegex)
-                    .stream()
-                    .map(User::getId)
-                    .collect(Collectors.toList());
-
-            Criteria titleCriteria = Criteria.where("title").regex(escapedRegex, "i");
-            
-            Criteria participantsCriteria;
-            if (matchingUserIds.isEmpty()) {
-                participantsCriteria = Criteria.where("participants").in(Collections.emptyList());
-            } else {
-                participantsCriteria = Criteria.where("participants").in(matchingUserIds);
-            }
-
-            Criteria searchCriteria = new Criteria().orOperator(titleCriteria, participantsCriteria);
-            finalCriteria = new Criteria().andOperator(baseCriteria, statusCriteria, searchCriteria);
+            return TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(search.trim()))
+                    .addCriteria(finalCriteria);
         }
 
-        Query query = new Query(finalCriteria);
-        query.with(pageable);
-
-        long total = mongoTemplate.count(query, Expense.class);
-        List<Expense> expenses = mongoTemplate.find(query, Expense.class);
-        List<ExpenseResponse> responseList = expenses.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return new Query(finalCriteria);
+    }
 
-        return new PageImpl<>(responseList, pageable, total);
+    private static List<String> resolveStatuses(String statusFilter) {
+        if (statusFilter == null || statusFilter.isBlank()) {
+            return DEFAULT_STATUSES;
+        }
+        String trimmed = statusFilter.trim().toUpperCase();
+        if (!VALID_STATUSES.contains(trimmed)) {
+            throw new IllegalArgumentException("Invalid status filter: " + statusFilter);
+        }
+        return List.of(trimmed);
     }
 
-    @Transactional
     public void requestPayment(String expenseId, String userId) {
+        runTransition("requestPayment", expenseId, () -> doRequestPayment(expenseId, userId));
+    }
+
+    private void doRequestPayment(String expenseId, String userId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -497,7 +608,7 @@ public class ExpenseService {
             throw new IllegalArgumentException("The payer cannot request payment for their own expense.");
         }
 
-        ParticipantStatus status = participantStatusRepository.findByExpenseIdAndUserId(expenseId, userId)
+        ParticipantStatus status = participantState.find(expense, userId)
                 .orElseThrow(() -> new IllegalArgumentException("You are not a participant of this expense."));
 
         if (!"ACCEPTED".equals(status.getStatus())) {
@@ -514,13 +625,16 @@ public class ExpenseService {
 
         status.setStatus("PAYMENT_REQUESTED");
         status.setUpdatedAt(Instant.now());
-        participantStatusRepository.save(status);
+        participantState.update(expense, status, "ACCEPTED");
 
-        notifyPayer(expense, userId);
+        outbox.publish(ExpenseEventType.PAYMENT_REQUESTED, expense, userId, userId);
     }
 
-    @Transactional
     public void approvePayment(String expenseId, String payerId, String participantId) {
+        runTransition("approvePayment", expenseId, () -> doApprovePayment(expenseId, payerId, participantId));
+    }
+
+    private void doApprovePayment(String expenseId, String payerId, String participantId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -536,25 +650,31 @@ public class ExpenseService {
             throw new IllegalArgumentException("The payer cannot approve their own payment request.");
         }
 
-        ParticipantStatus status = participantStatusRepository.findByExpenseIdAndUserId(expenseId, participantId)
+        ParticipantStatus status = participantState.find(expense, participantId)
                 .orElseThrow(() -> new IllegalArgumentException("Participant not found in this expense."));
 
         if (!"PAYMENT_REQUESTED".equals(status.getStatus())) {
             throw new IllegalArgumentException("This participant has not requested payment approval.");
         }
 
+        Instant now = Instant.now();
         status.setStatus("SETTLED");
-        status.setSettledAt(Instant.now());
-        status.setUpdatedAt(Instant.now());
-        participantStatusRepository.save(status);
+        status.setSettledAt(now);
+        status.setUpdatedAt(now);
+        participantState.update(expense, status, "PAYMENT_REQUESTED");
+
+        balanceLedger.release(expense, participantId, status.getShareAmount());
 
-        notifyParticipantApproved(expense, participantId);
+        outbox.publish(ExpenseEventType.PAYMENT_APPROVED, expense, payerId, participantId);
 
         checkAndAutoSettle(expense);
     }
 
-    @Transactional
     public void rejectPayment(String expenseId, String payerId, String participantId) {
+        runTransition("rejectPayment", expenseId, () -> doRejectPayment(expenseId, payerId, participantId));
+    }
+
+    private void doRejectPayment(String expenseId, String payerId, String participantId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -570,7 +690,7 @@ public class ExpenseService {
             throw new IllegalArgumentException("The payer cannot reject their own payment request.");
         }
 
-        ParticipantStatus status = participantStatusRepository.findByExpenseIdAndUserId(expenseId, participantId)
+        ParticipantStatus status = participantState.find(expense, participantId)
                 .orElseThrow(() -> new IllegalArgumentException("Participant not found in this expense."));
 
         if (!"PAYMENT_REQUESTED".equals(status.getStatus())) {
@@ -579,13 +699,16 @@ public class ExpenseService {
 
         status.setStatus("ACCEPTED");
         status.setUpdatedAt(Instant.now());
-        participantStatusRepository.save(status);
+        participantState.update(expense, status, "PAYMENT_REQUESTED");
 
-        notifyParticipantRejected(expense, participantId);
+        outbox.publish(ExpenseEventType.PAYMENT_REJECTED, expense, payerId, participantId);
     }
 
-    @Transactional
     public void approveAllPayments(String expenseId, String payerId) {
+        runTransition("approveAllPayments", expenseId, () -> doApproveAllPayments(expenseId, payerId));
+    }
+
+    private void doApproveAllPayments(String expenseId, String payerId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -597,28 +720,30 @@ public class ExpenseService {
             throw new SecurityException("Only the payer can approve payment requests.");
         }
 
-        List<ParticipantStatus> pendingRequests = participantStatusRepository
-                .findByExpenseIdAndStatus(expenseId, "PAYMENT_REQUESTED");
+        List<ParticipantStatus> pendingRequests = participantState.findByExpense(expense).stream()
+                .filter(ps -> "PAYMENT_REQUESTED".equals(ps.getStatus()))
+                .collect(Collectors.toList());
 
         if (pendingRequests.isEmpty()) {
             throw new IllegalArgumentException("No pending payment requests to approve.");
         }
 
-        for (ParticipantStatus status : pendingRequests) {
-            if (!"PAYMENT_REQUESTED".equals(status.getStatus())) {
-                continue;
-            }
-            status.setStatus("SETTLED");
-            status.setSettledAt(Instant.now());
-            status.setUpdatedAt(Instant.now());
-            participantStatusRepository.save(status);
-        }
+        Set<String> applied = participantState.transition(expense, pendingRequests,
+                List.of("PAYMENT_REQUESTED"), "SETTLED", Instant.now());
+
+        balanceLedger.releaseAll(expense, pendingRequests.stream()
+                .filter(ps -> applied.contains(ps.getUserId()))
+                .collect(Collectors.toList()));
+        outbox.publishAll(ExpenseEventType.PAYMENT_APPROVED, expense, payerId, applied);
 
         checkAndAutoSettle(expense);
     }
 
-    @Transactional
     public void cancelPaymentRequest(String expenseId, String userId) {
+        runTransition("cancelPaymentRequest", expenseId, () -> doCancelPaymentRequest(expenseId, userId));
+    }
+
+    private void doCancelPaymentRequest(String expenseId, String userId) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found."));
 
@@ -630,7 +755,7 @@ public class ExpenseService {
             throw new IllegalArgumentException("The payer cannot cancel a payment request.");
         }
 
-        ParticipantStatus status = participantStatusRepository.findByExpenseIdAndUserId(expenseId, userId)
+        ParticipantStatus status = participantState.find(expense, userId)
                 .orElseThrow(() -> new IllegalArgumentException("You are not a participant of this expense."));
 
         if (!"PAYMENT_REQUESTED".equals(status.getStatus())) {
@@ -639,11 +764,60 @@ public class ExpenseService {
 
         status.setStatus("ACCEPTED");
         status.setUpdatedAt(Instant.now());
-        participantStatusRepository.save(status);
+        participantState.update(expense, status, "PAYMENT_REQUESTED");
+        outbox.publish(ExpenseEventType.PAYMENT_REQUEST_CANCELLED, expense, userId, userId);
+    }
+
+    // A failed attempt may still have written part of its change, so the cached response is always
+    // dropped. Re-projection is not done here: every write publishes an outbox event and the timeline
+    // follows those, so a rejected request causes no projection work.
+    // Each attempt is one transaction, so the state change and the events it publishes commit together
+    private void runTransition(String operation, String expenseId, Runnable action) {
+        try {
+            conflictRetry.run(operation, () -> expenseTransactions.executeWithoutResult(tx -> action.run()));
+        } finally {
+            expenseCache.invalidate(expenseId);
+        }
+    }
+
+    private <T> T callTransition(String operation, String expenseId, Supplier<T> action) {
+        try {
+            return conflictRetry.call(operation, () -> expenseTransactions.execute(tx -> action.get()));
+        } finally {
+            expenseCache.invalidate(expenseId);
+        }
+    }
+
+    // Conditional status flip; losing the race to another transition surfaces as a 409
+    private void transitionExpense(Expense expense, Criteria statusFilter, String toStatus, Instant now) {
+        if (!tryTransitionExpense(expense, statusFilter, toStatus, now)) {
+            throw new ConflictException("This expense was changed by someone else. Please refresh and try again.");
+        }
+    }
+
+    // Same flip for follow-up moves where another caller getting there first is fine
+    private boolean tryTransitionExpense(Expense expense, Criteria statusFilter, String toStatus, Instant now) {
+        Query query = new Query(new Criteria().andOperator(Criteria.where("_id").is(expense.getId()), statusFilter));
+        query.fields().include("version");
+        Update update = new Update().set("status", toStatus).set("updatedAt", now).inc("version", 1);
+        Expense updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Expense.class);
+        if (updated == null) {
+            return false;
+        }
+        expense.setStatus(toStatus);
+        expense.setUpdatedAt(now);
+        expense.setVersion(updated.getVersion());
+        return true;
+    }
+
+    private void activate(Expense expense) {
+        if (tryTransitionExpense(expense, Criteria.where("status").is("PENDING"), "ACTIVE", Instant.now())) {
+            outbox.publish(ExpenseEventType.EXPENSE_ACTIVATED, expense, null, null);
+        }
     }
 
     private void checkAndAutoSettle(Expense expense) {
-        List<ParticipantStatus> allStatuses = participantStatusRepository.findByExpenseId(expense.getId());
+        List<ParticipantStatus> allStatuses = participantState.findByExpense(expense);
         String payerId = expense.getPaidBy();
 
         // Case 1: All remaining (non-rejected) participants are SETTLED → expense is settled
@@ -651,10 +825,10 @@ public class ExpenseService {
                 .filter(s -> !"REJECTED".equals(s.getStatus()))
                 .allMatch(s -> "SETTLED".equals(s.getStatus()));
         if (allRemainingSettled) {
-            expense.setStatus("SETTLED");
-            expense.setUpdatedAt(Instant.now());
-            expenseRepository.save(expense);
-            log.info("Expense {} automatically settled as all remaining participants are settled.", expense.getId());
+            if (tryTransitionExpense(expense, Criteria.where("status").is("ACTIVE"), "SETTLED", Instant.now())) {
+                outbox.publish(ExpenseEventType.EXPENSE_SETTLED, expense, null, null);
+                log.info("Expense {} automatically settled as all remaining participants are settled.", expense.getId());
+            }
             return;
         }
 
@@ -675,181 +849,55 @@ public class ExpenseService {
                     .orElse(null);
 
             if (payerStatus != null) {
+                Instant now = Instant.now();
                 payerStatus.setStatus("SETTLED");
-                payerStatus.setSettledAt(Instant.now());
-                payerStatus.setUpdatedAt(Instant.now());
-                participantStatusRepository.save(payerStatus);
+                payerStatus.setSettledAt(now);
+                payerStatus.setUpdatedAt(now);
+                try {
+                    participantState.update(expense, payerStatus, "ACCEPTED");
+                } catch (ConflictException ex) {
+                    // A concurrent approval already closed the payer out
+                    return;
+                }
 
-                expense.setStatus("SETTLED");
-                expense.setUpdatedAt(Instant.now());
-                expenseRepository.save(expense);
+                if (tryTransitionExpense(expense, Criteria.where("status").is("ACTIVE"), "SETTLED", now)) {
+                    outbox.publish(ExpenseEventType.EXPENSE_SETTLED, expense, null, null);
+                }
 
                 log.info("Expense {} auto-settled payer {} and closed.", expense.getId(), payerId);
             }
         }
     }
 
-    private void notifyPayer(Expense expense, String participantId) {
-        log.info("Notify payer {} that participant {} requested payment for expense {}", 
-                expense.getPaidBy(), participantId, expense.getId());
-    }
-
-    private void notifyParticipantApproved(Expense expense, String participantId) {
-        log.info("Notify participant {} that their payment was approved for expense {}", 
-                participantId, expense.getId());
-    }
-
-    private void notifyParticipantRejected(Expense expense, String participantId) {
-        log.info("Notify participant {} that their payment was rejected for expense {}", 
-                participantId, expense.getId());
-    }
-
-    private ExpenseResponse convertToResponse(Expense expense) {
-        List<ParticipantStatus> statuses = participantStatusRepository.findByExpenseId(expense.getId());
-        Map<String, ParticipantStatus> statusMap = statuses.stream()
-                .collect(Collectors.toMap(ParticipantStatus::getUserId, s -> s));
-
-        Map<String, User> userMap = new HashMap<>();
-        Set<String> userIds = new HashSet<>();
-        userIds.add(expense.getPaidBy());
-        userIds.add(expense.getCreatedBy());
-        userIds.addAll(expense.getParticipants());
-        userRepository.findAllById(userIds).forEach(user -> userMap.put(user.getId(), user));
-
-        ExpenseResponse.ExpenseResponseBuilder builder = ExpenseResponse.builder()
-                .id(expense.getId())
-                .title(expense.getTitle())
-                .titleSlug(expense.getTitleSlug())
-                .description(expense.getDescription())
-                .totalAmount(expense.getTotalAmount().toString())
-                .currency(expense.getCurrency())
-                .splitType(expense.getSplitType())
-                .expenseDateTime(expense.getExpenseDateTime())
-                .timezone(expense.getTimezone())
-                .status(expense.getStatus())
-                .createdAt(expense.getCreatedAt())
-                .updatedAt(expense.getUpdatedAt());
-
-        User paidByUser = userMap.get(expense.getPaidBy());
-        if (paidByUser != null) {
-            builder.paidBy(ExpenseResponse.PaidByInfo.builder()
-                    .id(paidByUser.getId())
-                    .name(paidByUser.getName())
-                    .email(paidByUser.getEmail())
-                    .build());
-        }
-
-        User createdByUser = userMap.get(expense.getCreatedBy());
-        if (createdByUser != null && !Objects.equals(expense.getCreatedBy(), expense.getPaidBy())) {
-            builder.createdBy(ExpenseResponse.CreatedByInfo.builder()
-                    .id(createdByUser.getId())
-                    .name(createdByUser.getName())
-                    .email(createdByUser.getEmail())
-                    .build());
-        }
-
-        List<ExpenseResponse.ParticipantInfo> participantInfos = expense.getParticipants().stream()
-                .map(participantId -> {
-                    User user = userMap.get(participantId);
-                    if (user == null) return null;
-                    return ExpenseResponse.ParticipantInfo.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .avatar(user.getPicture())
-                            .build();
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        builder.participants(participantInfos);
-
-        if (expense.getManualSplits() != null) {
-            List<ExpenseResponse.ManualSplitInfo> splitInfos = expense.getManualSplits().stream()
-                    .map(split -> ExpenseResponse.ManualSplitInfo.builder()
-                            .userId(split.getUserId())
-                            .amount(split.getAmount().toString())
-                            .build())
-                    .collect(Collectors.toList());
-            builder.manualSplits(splitInfos);
-        }
-
-        if (statusMap != null && !statusMap.isEmpty()) {
-            List<ExpenseResponse.ParticipantSettlementInfo> settlementInfos = expense.getParticipants().stream()
-                    .map(participantId -> {
-                        ParticipantStatus ps = statusMap.get(participantId);
-                        if (ps == null) return null;
-                        return ExpenseResponse.ParticipantSettlementInfo.builder()
-                                .userId(ps.getUserId())
-                                .status(ps.getStatus())
-                                .settled("SETTLED".equals(ps.getStatus()))
-                                .settledAt(ps.getSettledAt())
-                                .build();
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-            builder.participantSettlement(settlementInfos);
-        }
-
-        if (expense.getImages() != null && !expense.getImages().isEmpty()) {
-            List<ExpenseResponse.ImageInfo> imageInfos = expense.getImages().stream()
-                    .map(img -> ExpenseResponse.ImageInfo.builder()
-                            .url(img.getUrl())
-                            .thumbnailUrl(img.getThumbnailUrl())
-                            .originalName(img.getOriginalName())
-                            .size(img.getSize())
-                            .uploadedAt(img.getUploadedAt())
-                            .build())
-                    .collect(Collectors.toList());
-            builder.images(imageInfos);
+    private RecentExpenseResponse toRecentResponse(UserTimelineEntry entry) {
+        List<RecentExpenseResponse.ParticipantSummary> participants = new ArrayList<>();
+        if (entry.getParticipants() != null) {
+            for (UserTimelineEntry.Participant participant : entry.getParticipants()) {
+                participants.add(RecentExpenseResponse.ParticipantSummary.builder()
+                        .id(participant.getId())
+                        .name(participant.getName())
+                        .avatar(participant.getAvatar())
+                        .build());
+            }
         }
 
-        return builder.build();
-    }
-
-    private RecentExpenseResponse convertToRecentResponse(Expense expense, String currentUserId) {
-        Map<String, User> userMap = new HashMap<>();
-        userRepository.findAllById(expense.getParticipants()).forEach(user -> userMap.put(user.getId(), user));
-
-        List<RecentExpenseResponse.ParticipantSummary> participants = expense.getParticipants().stream()
-                .map(userMap::get)
-                .filter(Objects::nonNull)
-                .map(user -> RecentExpenseResponse.ParticipantSummary.builder()
-                        .id(user.getId())
-                        .name(user.getName())
-                        .avatar(user.getPicture())
-                        .build())
-                .collect(Collectors.toList());
-
         return RecentExpenseResponse.builder()
-                .id(expense.getId())
-                .title(expense.getTitle())
-                .titleSlug(expense.getTitleSlug())
+                .id(entry.getExpenseId())
+                .title(entry.getTitle())
+                .titleSlug(entry.getTitleSlug())
                 .participants(participants)
-                .time(expense.getExpenseDateTime())
-                .pendingAmount(calculatePendingAmount(expense, currentUserId).toPlainString())
-                .currency(expense.getCurrency())
+                .time(entry.getTime())
+                .pendingAmount(entry.getPendingAmount())
+                .currency(entry.getCurrency())
                 .build();
     }
 
-    private BigDecimal calculatePendingAmount(Expense expense, String currentUserId) {
-        List<ParticipantStatus> statuses = participantStatusRepository.findByExpenseId(expense.getId());
-        Map<String, Boolean> settlementMap = statuses.stream()
-                .collect(Collectors.toMap(
-                        ParticipantStatus::getUserId,
-                        s -> "SETTLED".equals(s.getStatus()),
-                        (first, second) -> first
-                ));
-
-        if (expense.getManualSplits() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        return expense.getManualSplits().stream()
-                .filter(split -> !Boolean.TRUE.equals(settlementMap.get(split.getUserId())))
-                .filter(split -> Objects.equals(expense.getPaidBy(), currentUserId)
-                        ? !Objects.equals(split.getUserId(), currentUserId)
-                        : Objects.equals(split.getUserId(), currentUserId))
-                .map(split -> split.getAmount().bigDecimalValue())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Names are denormalized onto the expense so the text index can match them
+    private List<String> participantNames(List<String> participantIds) {
+        return userRepository.findAllById(participantIds).stream()
+                .map(User::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     private ZoneId resolveZoneId(String timezone) {
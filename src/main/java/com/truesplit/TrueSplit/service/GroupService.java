@@ -5,6 +5,10 @@ import com.truesplit.TrueSplit.dto.request.CreateGroupRequest;
 import com.truesplit.TrueSplit.dto.request.GroupResponse;
 import com.truesplit.TrueSplit.model.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,56 +24,31 @@ public class GroupService {
     private final GroupMemberRepository groupMemberRepository;
     private final AccessRequestRepository accessRequestRepository;
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int DUPLICATE_KEY = 11000;
 
     // Create Group
     @Transactional
     public Group createGroup(String ownerId, CreateGroupRequest dto) {
-        // Deduplicate emails and remove owner's email
-        Set<String> uniqueEmails = new HashSet<>();
-        if (dto.getMemberEmails() != null) {
-            // Validate all emails exist first
-            for (String email : dto.getMemberEmails()) {
-                if (!userRepository.existsByEmail(email)) {
-                    throw new IllegalArgumentException("User not found: " + email);
-                }
-            }
-            // Now add to set (deduplicate) and filter out owner
-            uniqueEmails.addAll(dto.getMemberEmails());
-            // Remove owner's email if present (owner added separately with permission)
-            User owner = userRepository.findById(ownerId)
-                    .orElseThrow(() -> new IllegalStateException("Owner not found"));
-            uniqueEmails.remove(owner.getEmail());
-        }
+        // Validate every email with one lookup; the owner is added separately with permission
+        Map<String, User> members = resolveUsersByEmail(dto.getMemberEmails());
+        members.values().removeIf(user -> user.getId().equals(ownerId));
 
+        Instant now = Instant.now();
         Group group = new Group();
         group.setName(dto.getName());
         group.setOwnerId(ownerId);
-        group.setCreatedAt(Instant.now());
-        group.setUpdatedAt(Instant.now());
+        group.setCreatedAt(now);
+        group.setUpdatedAt(now);
         Group saved = groupRepository.save(group);
 
-        // Add owner with permission
-        GroupMember ownerMember = new GroupMember();
-        ownerMember.setGroupId(saved.getId());
-        ownerMember.setUserId(ownerId);
-        ownerMember.setHasPermission(true);
-        ownerMember.setJoinedAt(Instant.now());
-        groupMemberRepository.save(ownerMember);
-
-        // Add deduplicated members (without permission)
-        for (String email : uniqueEmails) {
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + email));
-            // Safety check: if already a member (should not happen), skip
-            if (!groupMemberRepository.existsByGroupIdAndUserId(saved.getId(), user.getId())) {
-                GroupMember member = new GroupMember();
-                member.setGroupId(saved.getId());
-                member.setUserId(user.getId());
-                member.setHasPermission(false);
-                member.setJoinedAt(Instant.now());
-                groupMemberRepository.save(member);
-            }
+        List<GroupMember> newMembers = new ArrayList<>(members.size() + 1);
+        newMembers.add(newMember(saved.getId(), ownerId, true, now));
+        for (User user : members.values()) {
+            newMembers.add(newMember(saved.getId(), user.getId(), false, now));
         }
+        insertMembers(newMembers);
         return saved;
     }
 
@@ -82,20 +61,68 @@ public class GroupService {
             throw new SecurityException("Only the group owner can add members");
         }
 
-        // Deduplicate and validate emails
-        Set<String> uniqueEmails = new HashSet<>(emails);
+        Map<String, User> users = resolveUsersByEmail(emails);
+        if (users.isEmpty()) {
+            return;
+        }
+        Set<String> userIds = users.values().stream().map(User::getId).collect(Collectors.toSet());
+        // Skip anyone who is already a member
+        for (GroupMember existing : groupMemberRepository.findByGroupIdAndUserIdIn(groupId, userIds)) {
+            userIds.remove(existing.getUserId());
+        }
+
+        Instant now = Instant.now();
+        List<GroupMember> newMembers = new ArrayList<>(userIds.size());
+        for (String memberId : userIds) {
+            newMembers.add(newMember(groupId, memberId, false, now));
+        }
+        insertMembers(newMembers);
+    }
+
+    // One $in query for all emails; any email without an account fails the whole request
+    private Map<String, User> resolveUsersByEmail(Collection<String> emails) {
+        if (emails == null || emails.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<String> uniqueEmails = new LinkedHashSet<>(emails);
+        Map<String, User> byEmail = new HashMap<>();
+        for (User user : userRepository.findByEmailIn(uniqueEmails)) {
+            byEmail.put(user.getEmail(), user);
+        }
         for (String email : uniqueEmails) {
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + email));
-            // Skip if already a member
-            if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, user.getId())) {
-                GroupMember member = new GroupMember();
-                member.setGroupId(groupId);
-                member.setUserId(user.getId());
-                member.setHasPermission(false);
-                member.setJoinedAt(Instant.now());
-                groupMemberRepository.save(member);
+            if (!byEmail.containsKey(email)) {
+                throw new IllegalArgumentException("User not found: " + email);
+            }
+        }
+        return byEmail;
+    }
+
+    private GroupMember newMember(String groupId, String userId, boolean hasPermission, Instant joinedAt) {
+        GroupMember member = new GroupMember();
+        member.setGroupId(groupId);
+        member.setUserId(userId);
+        member.setHasPermission(hasPermission);
+        member.setJoinedAt(joinedAt);
+        return member;
+    }
+
+    // Unordered so one duplicate doesn't stop the rest; a concurrent add of the same member
+    // trips the unique (groupId, userId) index and is treated as already done
+    private void insertMembers(List<GroupMember> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GroupMember.class);
+        ops.insert(members);
+        try {
+            ops.execute();
+        } catch (BulkOperationException ex) {
+            boolean onlyDuplicates = ex.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw ex;
             }
+        } catch (DuplicateKeyException ignored) {
+            // Already a member
         }
     }
 
@@ -181,43 +208,61 @@ public class GroupService {
     }
 
     // List Groups (Categorized)
+    // At most five queries however many groups and members there are; the joins happen in memory
     public GroupListResponse getUserGroups(String userId) {
         List<Group> ownedGroups = groupRepository.findByOwnerId(userId);
+        Set<String> ownedIds = ownedGroups.stream().map(Group::getId).collect(Collectors.toSet());
 
-        List<GroupMember> memberships = groupMemberRepository.findByUserId(userId);
-        List<String> memberGroupIds = memberships.stream()
-                .map(GroupMember::getGroupId)
+        Map<String, GroupMember> membershipByGroup = new HashMap<>();
+        for (GroupMember membership : groupMemberRepository.findByUserId(userId)) {
+            membershipByGroup.put(membership.getGroupId(), membership);
+        }
+        List<String> memberGroupIds = membershipByGroup.keySet().stream()
+                .filter(id -> !ownedIds.contains(id))
                 .collect(Collectors.toList());
-        List<Group> allMemberGroups = groupRepository.findAllById(memberGroupIds);
+        List<Group> memberGroups = memberGroupIds.isEmpty()
+                ? List.of()
+                : groupRepository.findAllById(memberGroupIds);
 
         List<Group> accessibleGroups = new ArrayList<>();
         List<Group> lockedGroups = new ArrayList<>();
-        for (Group g : allMemberGroups) {
+        for (Group g : memberGroups) {
             if (g.getOwnerId().equals(userId)) continue;
-            GroupMember gm = memberships.stream()
-                    .filter(m -> m.getGroupId().equals(g.getId()))
-                    .findFirst()
-                    .orElse(null);
-            if (gm != null && gm.isHasPermission()) {
+            if (membershipByGroup.get(g.getId()).isHasPermission()) {
                 accessibleGroups.add(g);
-            } else if (gm != null) {
+            } else {
                 lockedGroups.add(g);
             }
         }
 
+        List<String> groupIds = new ArrayList<>(ownedIds);
+        memberGroups.forEach(g -> groupIds.add(g.getId()));
+        Map<String, List<GroupMember>> membersByGroup = new HashMap<>();
+        Map<String, User> users = new HashMap<>();
+        if (!groupIds.isEmpty()) {
+            List<GroupMember> members = groupMemberRepository.findByGroupIdIn(groupIds);
+            Set<String> memberIds = new HashSet<>();
+            for (GroupMember m : members) {
+                membersByGroup.computeIfAbsent(m.getGroupId(), k -> new ArrayList<>()).add(m);
+                memberIds.add(m.getUserId());
+            }
+            userRepository.findAllById(memberIds).forEach(user -> users.put(user.getId(), user));
+        }
+
         return GroupListResponse.builder()
-                .owned(ownedGroups.stream().map(g -> mapToResponse(g, userId)).collect(Collectors.toList()))
-                .accessible(accessibleGroups.stream().map(g -> mapToResponse(g, userId)).collect(Collectors.toList()))
-                .locked(lockedGroups.stream().map(g -> mapToResponse(g, userId)).collect(Collectors.toList()))
+                .owned(ownedGroups.stream().map(g -> mapToResponse(g, membersByGroup, users)).collect(Collectors.toList()))
+                .accessible(accessibleGroups.stream().map(g -> mapToResponse(g, membersByGroup, users)).collect(Collectors.toList()))
+                .locked(lockedGroups.stream().map(g -> mapToResponse(g, membersByGroup, users)).collect(Collectors.toList()))
                 .build();
     }
 
-    // Helper: Map Group to GroupResponse
-    private GroupResponse mapToResponse(Group group, String currentUserId) {
-        List<GroupMember> members = groupMemberRepository.findByGroupId(group.getId());
-        List<GroupResponse.GroupMemberInfo> memberInfos = members.stream()
+    // Helper: Map Group to GroupResponse from members and users already loaded for the whole listing
+    private GroupResponse mapToResponse(Group group, Map<String, List<GroupMember>> membersByGroup,
+                                        Map<String, User> users) {
+        List<GroupResponse.GroupMemberInfo> memberInfos = membersByGroup.getOrDefault(group.getId(), List.of())
+                .stream()
                 .map(m -> {
-                    User user = userRepository.findById(m.getUserId()).orElse(null);
+                    User user = users.get(m.getUserId());
                     return GroupResponse.GroupMemberInfo.builder()
                             .userId(m.getUserId())
                             .name(user != null ? user.getName() : "Unknown")
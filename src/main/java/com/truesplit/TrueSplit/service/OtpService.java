@@ -3,34 +3,73 @@ package com.truesplit.TrueSplit.service;
 import com.truesplit.TrueSplit.Repository.OtpRepository;
 import com.truesplit.TrueSplit.Repository.UserRepository;
 import com.truesplit.TrueSplit.model.Otp;
+import com.truesplit.TrueSplit.model.OtpQuota;
+import com.truesplit.TrueSplit.service.notification.EmailQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Instant;
-import java.util.Random;
-
+import java.util.Base64;
+
+/**
+ * One-time codes for email verification. A six-digit code has only 10^6 values, so a slow hash
+ * adds CPU cost without protection; what stops guessing is the per-email quota on sends and
+ * attempts, which outlives any single code. Codes are stored as HMAC-SHA256 under a key used for
+ * nothing else (bound to the email) and compared in constant time.
+ */
 @Service
 @Slf4j
 public class OtpService {
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+
     private final OtpRepository otpRepository;
-    private final JavaMailSender javaMailSender;
+    private final EmailQueue emailQueue;
     private final long otpValiditySeconds;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-
-    public OtpService(OtpRepository otpRepository, JavaMailSender javaMailSender,
-                      @Value("${otp.validity-seconds:60}") long otpValidityInSeconds, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final MongoTemplate mongoTemplate;
+    private final SecretKeySpec hmacKey;
+    private final int maxAttempts;
+    private final int maxSends;
+    private final long quotaWindowSeconds;
+    private final long verifiedValiditySeconds;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public OtpService(OtpRepository otpRepository, EmailQueue emailQueue,
+                      @Value("${otp.validity-seconds:60}") long otpValidityInSeconds, UserRepository userRepository,
+                      MongoTemplate mongoTemplate,
+                      @Value("${otp.hmac-secret}") String hmacSecret,
+                      @Value("${otp.max-attempts:5}") int maxAttempts,
+                      @Value("${otp.max-sends:5}") int maxSends,
+                      @Value("${otp.quota-window-seconds:3600}") long quotaWindowSeconds,
+                      @Value("${otp.verified-validity-seconds:1800}") long verifiedValiditySeconds) {
         this.otpRepository = otpRepository;
-        this.javaMailSender = javaMailSender;
+        this.emailQueue = emailQueue;
         this.otpValiditySeconds = otpValidityInSeconds;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.mongoTemplate = mongoTemplate;
+        byte[] keyBytes = hmacSecret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("otp.hmac-secret must be at least " + MIN_KEY_BYTES + " bytes.");
+        }
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC);
+        this.maxAttempts = maxAttempts;
+        this.maxSends = maxSends;
+        this.quotaWindowSeconds = quotaWindowSeconds;
+        this.verifiedValiditySeconds = verifiedValiditySeconds;
     }
 
     public String generateOtpAndSend(String email) {
@@ -38,28 +77,34 @@ public class OtpService {
         if(userRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already in use");
         }
+        if (!consume(email, "sends", maxSends)) {
+            throw new IllegalArgumentException("Too many OTP requests. Please try again later.");
+        }
 
-        String code = String.format("%06d", new Random().nextInt(1_000_000));
+        String code = String.format("%06d", secureRandom.nextInt(1_000_000));
 
         Otp otp = new Otp();
         otp.setEmail(email);
-        otp.setCode(passwordEncoder.encode(code));   // Store hashed OTP
-        //otp.setExpiresAt(Instant.parse(String.valueOf(Instant.now().plusSeconds(otpValiditySeconds))));
-        otp.setExpiresAt(Instant.now().plusSeconds(otpValiditySeconds));
+        otp.setCode(digest(hmacKey, email, code));
+        Instant expiresAt = Instant.now().plusSeconds(otpValiditySeconds);
+        otp.setExpiresAt(expiresAt);
         otpRepository.deleteByEmail(email);
         otpRepository.save(otp);
 
-        //send email
-
-        SimpleMailMessage  message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("Your OTP for TrueSplit");
-        message.setText("Your OTP code is: "+ code + "\nIt is valid for " + (otpValiditySeconds) + " second.");
-        javaMailSender.send(message);
+        // Sent from memory off the request thread, so the plain code is never stored
+        emailQueue.sendNow(email, "Your OTP for TrueSplit",
+                "Your OTP code is: " + code + "\nIt is valid for " + (otpValiditySeconds) + " second.",
+                expiresAt);
         return code;
     }
 
     public boolean verifyOtp(String email, String code) {
+        // Count the attempt before checking it, so parallel guesses cannot share one budget
+        if (!consume(email, "attempts", maxAttempts)) {
+            log.warn("[OTP] Too many attempts for {}, code discarded", email);
+            otpRepository.deleteByEmail(email);
+            return false;
+        }
         var o = otpRepository.findByEmail(email);
         if (o.isEmpty()) return false;
 
@@ -70,22 +115,56 @@ public class OtpService {
             return false;
         }
 
-        // Compare hashed OTP with user input
-        if (!passwordEncoder.matches(code, otp.getCode())) {
+        if (!matches(hmacKey, email, code, otp.getCode())) {
             return false;
         }
 
-        otp.setVerified(true);
-        otpRepository.save(otp);
+        // The TTL index removes the OTP at expiresAt, so give signup time to use the verification
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(otp.getId())),
+                new Update().set("verified", true)
+                        .set("expiresAt", Instant.now().plusSeconds(verifiedValiditySeconds)),
+                Otp.class);
         return true;
     }
 
-    @Scheduled(fixedRate = 90000) // every 90 seconds
-    public void deleteExpiredOtps() {
-        long deletedCount = otpRepository.deleteByVerifiedFalseAndExpiresAtBefore(Instant.now());
+    /**
+     * Takes one unit of {@code field} from the email's quota, opening a window on first use.
+     * When the quota is spent the filter misses, the upsert collides with the existing document
+     * on {@code _id}, and the duplicate key means no.
+     */
+    private boolean consume(String email, String field, int limit) {
+        try {
+            mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(email).and(field).lt(limit)),
+                    new Update().inc(field, 1)
+                            .setOnInsert("expiresAt", Instant.now().plusSeconds(quotaWindowSeconds)),
+                    FindAndModifyOptions.options().upsert(true),
+                    OtpQuota.class);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
 
-        if (deletedCount > 0) {
-            log.info("[OTP CLEANUP] Deleted {} expired & unverified OTP(s)", deletedCount);
+    static String digest(SecretKeySpec key, String email, String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            mac.update(email.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to protect OTP", ex);
         }
     }
+
+    static boolean matches(SecretKeySpec key, String email, String code, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        byte[] expected = Base64.getDecoder().decode(stored);
+        byte[] actual = Base64.getDecoder().decode(digest(key, email, code));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
 }
@@ -0,0 +1,115 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.ParticipantStatusRepository;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Copies {@code participant_statuses} rows into {@code Expense.participantSettlement}.
+ * Enabled with {@code expense.participant-state.migrate-on-startup=true}; walks the expenses
+ * that have no embedded state yet in {@code _id} order, one batch at a time.
+ * Expenses written before {@code @Version} existed get {@code version: 0} once, whether or not
+ * the migration is enabled, otherwise their first {@code save} would be treated as an insert.
+ * A marker in {@code migrations} records that this ran, so later boots skip the collection scan.
+ * That step runs before the web server starts, since {@code ExpenseService} saves whole expenses;
+ * the embedding migration is an {@link ApplicationRunner} and may run while requests are served.
+ */
+@Component
+@Slf4j
+public class ParticipantStateMigration implements ApplicationRunner, SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String MIGRATIONS = "migrations";
+    private static final String VERSION_MARKER = "expense-version-init";
+
+    private final MongoTemplate mongoTemplate;
+    private final ParticipantStatusRepository participantStatusRepository;
+    private final boolean enabled;
+
+    public ParticipantStateMigration(MongoTemplate mongoTemplate,
+                                     ParticipantStatusRepository participantStatusRepository,
+                                     @Value("${expense.participant-state.migrate-on-startup:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.participantStatusRepository = participantStatusRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        initialiseVersions();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long migrated = 0;
+        String lastId = null;
+        while (true) {
+            Criteria criteria = Criteria.where("participantSettlement.0.status").exists(false);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(new ObjectId(lastId));
+            }
+            Query query = new Query(criteria).with(Sort.by("_id")).limit(BATCH_SIZE);
+            query.fields().include("_id", "currency");
+            List<Expense> batch = mongoTemplate.find(query, Expense.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = batch.stream().map(Expense::getId).toList();
+            Map<String, String> currencies = new HashMap<>();
+            batch.forEach(expense -> currencies.put(expense.getId(), expense.getCurrency()));
+            Map<String, List<Expense.ParticipantSettlement>> entries = new HashMap<>();
+            for (ParticipantStatus ps : participantStatusRepository.findByExpenseIdIn(ids)) {
+                entries.computeIfAbsent(ps.getExpenseId(), k -> new ArrayList<>())
+                        .add(ParticipantStateStore.toEntry(ps, currencies.get(ps.getExpenseId())));
+            }
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+            for (String id : entries.keySet()) {
+                // Guarded so an expense that gained embedded state meanwhile is left alone
+                ops.updateOne(new Query(Criteria.where("_id").is(id)
+                                .and("participantSettlement.0.status").exists(false)),
+                        new Update().set("participantSettlement", entries.get(id)).inc("version", 1));
+            }
+            if (!entries.isEmpty()) {
+                migrated += ops.execute().getModifiedCount();
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.info("[PARTICIPANT STATE] Embedded participant state in {} expense(s)", migrated);
+    }
+
+    private void initialiseVersions() {
+        Query marker = new Query(Criteria.where("_id").is(VERSION_MARKER));
+        if (mongoTemplate.exists(marker, MIGRATIONS)) {
+            return;
+        }
+        long versioned = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Expense.class).getModifiedCount();
+        if (versioned > 0) {
+            log.info("[PARTICIPANT STATE] Initialised version on {} expense(s)", versioned);
+        }
+        // Upsert, so instances booting together both finish without a duplicate-key error
+        mongoTemplate.upsert(marker, new Update().set("completedAt", Instant.now()), MIGRATIONS);
+    }
+}
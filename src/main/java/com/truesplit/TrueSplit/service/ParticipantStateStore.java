@@ -0,0 +1,288 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.ParticipantStatusRepository;
+import com.truesplit.TrueSplit.exception.ConflictException;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes per-participant state of an expense. The state is moving from the
+ * {@code participant_statuses} collection into {@code Expense.participantSettlement};
+ * {@code expense.participant-state.mode} selects where it lives while that happens:
+ * <ul>
+ *   <li>{@code legacy}: the collection only</li>
+ *   <li>{@code dual}: writes go to both, reads use the embedded copy once an expense has one</li>
+ *   <li>{@code embedded}: the expense document only</li>
+ * </ul>
+ * Embedded writes are positional {@code $set}s on the expense that also bump its {@code @Version},
+ * so a later {@code save} of a stale copy fails instead of overwriting them.
+ */
+@Component
+@Slf4j
+public class ParticipantStateStore {
+
+    private static final String EMBEDDED = "participantSettlement";
+
+    private final MongoTemplate mongoTemplate;
+    private final ParticipantStatusRepository participantStatusRepository;
+    private final String mode;
+
+    public ParticipantStateStore(MongoTemplate mongoTemplate,
+                                 ParticipantStatusRepository participantStatusRepository,
+                                 @Value("${expense.participant-state.mode:dual}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.participantStatusRepository = participantStatusRepository;
+        this.mode = mode.toLowerCase(Locale.ROOT);
+        if (!Set.of("legacy", "dual", "embedded").contains(this.mode)) {
+            throw new IllegalArgumentException("expense.participant-state.mode must be legacy, dual or embedded.");
+        }
+    }
+
+    // Called before the expense is inserted so the embedded copy goes in with the document itself
+    public void embed(Expense expense, List<ParticipantStatus> statuses) {
+        if (!"legacy".equals(mode)) {
+            expense.setParticipantSettlement(statuses.stream()
+                    .map(ps -> toEntry(ps, expense.getCurrency()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    // Called after the insert, once the expense id is known
+    public void created(Expense expense, List<ParticipantStatus> statuses) {
+        statuses.forEach(ps -> ps.setExpenseId(expense.getId()));
+        if (writesLegacy()) {
+            participantStatusRepository.insert(statuses);
+        }
+    }
+
+    public List<ParticipantStatus> findByExpense(Expense expense) {
+        return findByExpenses(List.of(expense)).getOrDefault(expense.getId(), new ArrayList<>());
+    }
+
+    public Optional<ParticipantStatus> find(Expense expense, String userId) {
+        return findByExpense(expense).stream()
+                .filter(ps -> ps.getUserId().equals(userId))
+                .findFirst();
+    }
+
+    // Expenses that carry an embedded copy cost nothing; the rest share one $in query
+    public Map<String, List<ParticipantStatus>> findByExpenses(Collection<Expense> expenses) {
+        Map<String, List<ParticipantStatus>> byExpense = new HashMap<>();
+        List<String> legacyIds = new ArrayList<>();
+        for (Expense expense : expenses) {
+            if (readsEmbedded(expense)) {
+                List<ParticipantStatus> statuses = new ArrayList<>();
+                if (expense.getParticipantSettlement() != null) {
+                    for (Expense.ParticipantSettlement entry : expense.getParticipantSettlement()) {
+                        statuses.add(toStatus(expense.getId(), entry));
+                    }
+                }
+                byExpense.put(expense.getId(), statuses);
+            } else {
+                legacyIds.add(expense.getId());
+            }
+        }
+        if (!legacyIds.isEmpty()) {
+            for (ParticipantStatus ps : participantStatusRepository.findByExpenseIdIn(legacyIds)) {
+                byExpense.computeIfAbsent(ps.getExpenseId(), k -> new ArrayList<>()).add(ps);
+            }
+        }
+        return byExpense;
+    }
+
+    /**
+     * Persists a change the caller made to {@code status}, provided the participant is still in
+     * {@code expectedStatus}. Throws {@link ConflictException} when someone else got there first.
+     */
+    public void update(Expense expense, ParticipantStatus status, String expectedStatus) {
+        boolean embedded = writesEmbedded(expense);
+        if (embedded) {
+            Query query = new Query(Criteria.where("_id").is(expense.getId()).and(EMBEDDED)
+                    .elemMatch(Criteria.where("userId").is(status.getUserId()).and("status").is(expectedStatus)));
+            Update update = new Update()
+                    .set(EMBEDDED + ".$.status", status.getStatus())
+                    .set(EMBEDDED + ".$.settled", "SETTLED".equals(status.getStatus()))
+                    .set(EMBEDDED + ".$.settledAt", status.getSettledAt())
+                    .set(EMBEDDED + ".$.updatedAt", status.getUpdatedAt())
+                    .inc("version", 1);
+            if (!refresh(expense, query, update)) {
+                throw new ConflictException("This expense was changed by someone else. Please refresh and try again.");
+            }
+        }
+        if (writesLegacy()) {
+            Query query = new Query(Criteria.where("expenseId").is(expense.getId())
+                    .and("userId").is(status.getUserId())
+                    .and("status").is(expectedStatus));
+            Update update = new Update()
+                    .set("status", status.getStatus())
+                    .set("settledAt", status.getSettledAt())
+                    .set("updatedAt", status.getUpdatedAt())
+                    .inc("version", 1);
+            // With an embedded copy that one is authoritative and the legacy row just follows it
+            if (mongoTemplate.updateFirst(query, update, ParticipantStatus.class).getModifiedCount() == 0 && !embedded) {
+                throw new ConflictException("This expense was changed by someone else. Please refresh and try again.");
+            }
+        }
+    }
+
+    /**
+     * Changes a participant's share. The embedded copy is only changed in memory, so the caller
+     * must save the expense afterwards.
+     */
+    public void setShare(Expense expense, String userId, Money share, Instant now) {
+        if (writesEmbedded(expense)) {
+            Expense.ParticipantSettlement entry = expense.getParticipantSettlement().stream()
+                    .filter(e -> e.getUserId().equals(userId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Participant state not found."));
+            entry.setShareAmount(share);
+            entry.setUpdatedAt(now);
+        }
+        if (writesLegacy()) {
+            Query query = new Query(Criteria.where("expenseId").is(expense.getId()).and("userId").is(userId));
+            Update update = new Update().set("shareAmount", share.toBigDecimal()).set("updatedAt", now).inc("version", 1);
+            if (mongoTemplate.updateFirst(query, update, ParticipantStatus.class).getMatchedCount() == 0
+                    && !writesEmbedded(expense)) {
+                throw new IllegalStateException("Participant state not found.");
+            }
+        }
+    }
+
+    /**
+     * Moves every given participant that is still in one of {@code fromStatuses} to {@code toStatus}
+     * in one write. Returns the user ids that were actually moved; anyone missing changed state
+     * concurrently and must not be treated as transitioned.
+     */
+    public Set<String> transition(Expense expense, Collection<ParticipantStatus> rows,
+                                  Collection<String> fromStatuses, String toStatus, Instant now) {
+        Set<String> userIds = rows.stream().map(ParticipantStatus::getUserId).collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return userIds;
+        }
+        // Stored dates have millisecond precision; matching on the timestamp below needs the same
+        Instant stamp = now.truncatedTo(ChronoUnit.MILLIS);
+        boolean settled = "SETTLED".equals(toStatus);
+
+        Set<String> applied = null;
+        if (writesEmbedded(expense)) {
+            Update update = new Update()
+                    .set(EMBEDDED + ".$[p].status", toStatus)
+                    .set(EMBEDDED + ".$[p].updatedAt", stamp)
+                    .inc("version", 1)
+                    .filterArray(Criteria.where("p.userId").in(userIds).and("p.status").in(fromStatuses));
+            if (settled) {
+                update.set(EMBEDDED + ".$[p].settled", true).set(EMBEDDED + ".$[p].settledAt", stamp);
+            }
+            if (!refresh(expense, new Query(Criteria.where("_id").is(expense.getId())), update)) {
+                throw new ConflictException("This expense no longer exists.");
+            }
+            applied = expense.getParticipantSettlement().stream()
+                    .filter(e -> userIds.contains(e.getUserId()))
+                    .filter(e -> toStatus.equals(e.getStatus()) && stamp.equals(e.getUpdatedAt()))
+                    .map(Expense.ParticipantSettlement::getUserId)
+                    .collect(Collectors.toSet());
+        }
+        if (writesLegacy()) {
+            Update update = new Update().set("status", toStatus).set("updatedAt", stamp).inc("version", 1);
+            if (settled) {
+                update.set("settledAt", stamp);
+            }
+            long modified = mongoTemplate.updateMulti(new Query(Criteria.where("expenseId").is(expense.getId())
+                            .and("userId").in(userIds)
+                            .and("status").in(fromStatuses)),
+                    update, ParticipantStatus.class).getModifiedCount();
+            if (applied == null) {
+                applied = modified == userIds.size() ? userIds : legacyStampedWith(expense, userIds, toStatus, stamp);
+            }
+        }
+
+        if (applied.size() < userIds.size()) {
+            log.warn("Expense {}: {} of {} participants changed concurrently during transition to {}",
+                    expense.getId(), userIds.size() - applied.size(), userIds.size(), toStatus);
+        }
+        return applied;
+    }
+
+    // Rows carrying this transition's timestamp are the ones it wrote
+    private Set<String> legacyStampedWith(Expense expense, Set<String> userIds, String toStatus, Instant stamp) {
+        Query query = new Query(Criteria.where("expenseId").is(expense.getId())
+                .and("userId").in(userIds)
+                .and("status").is(toStatus)
+                .and("updatedAt").is(stamp));
+        query.fields().include("userId");
+        return mongoTemplate.find(query, ParticipantStatus.class).stream()
+                .map(ParticipantStatus::getUserId)
+                .collect(Collectors.toSet());
+    }
+
+    // Applies the update and copies the new version and embedded state back onto the caller's copy.
+    // Its other fields stay as first read, so that copy must not be saved whole afterwards.
+    private boolean refresh(Expense expense, Query query, Update update) {
+        query.fields().include("version", EMBEDDED);
+        Expense updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Expense.class);
+        if (updated == null) {
+            return false;
+        }
+        expense.setVersion(updated.getVersion());
+        expense.setParticipantSettlement(updated.getParticipantSettlement());
+        return true;
+    }
+
+    private boolean readsEmbedded(Expense expense) {
+        return "embedded".equals(mode) || ("dual".equals(mode) && hasEmbeddedState(expense));
+    }
+
+    private boolean writesEmbedded(Expense expense) {
+        return readsEmbedded(expense);
+    }
+
+    private boolean writesLegacy() {
+        return !"embedded".equals(mode);
+    }
+
+    static boolean hasEmbeddedState(Expense expense) {
+        List<Expense.ParticipantSettlement> entries = expense.getParticipantSettlement();
+        return entries != null && !entries.isEmpty() && entries.get(0).getStatus() != null;
+    }
+
+    static Expense.ParticipantSettlement toEntry(ParticipantStatus ps, String currency) {
+        Expense.ParticipantSettlement entry = new Expense.ParticipantSettlement();
+        entry.setUserId(ps.getUserId());
+        entry.setStatus(ps.getStatus());
+        entry.setShareAmount(ps.getShareAmount() != null
+                ? Money.of(ps.getShareAmount(), currency != null ? currency : "USD")
+                : null);
+        entry.setSettled("SETTLED".equals(ps.getStatus()));
+        entry.setSettledAt(ps.getSettledAt());
+        entry.setCreatedAt(ps.getCreatedAt());
+        entry.setUpdatedAt(ps.getUpdatedAt());
+        return entry;
+    }
+
+    private static ParticipantStatus toStatus(String expenseId, Expense.ParticipantSettlement entry) {
+        ParticipantStatus ps = new ParticipantStatus();
+        ps.setExpenseId(expenseId);
+        ps.setUserId(entry.getUserId());
+        ps.setStatus(entry.getStatus());
+        ps.setShareAmount(entry.getShareAmount() != null ? entry.getShareAmount().toBigDecimal() : null);
+        ps.setSettledAt(entry.getSettledAt());
+        ps.setCreatedAt(entry.getCreatedAt());
+        ps.setUpdatedAt(entry.getUpdatedAt());
+        return ps;
+    }
+}
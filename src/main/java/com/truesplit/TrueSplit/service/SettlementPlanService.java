@@ -0,0 +1,160 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.GroupMemberRepository;
+import com.truesplit.TrueSplit.dto.response.GroupBalanceResponse;
+import com.truesplit.TrueSplit.dto.response.SettlementPlanResponse;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class SettlementPlanService {
+
+    private static final int STATUS_BATCH_SIZE = 1000;
+    private static final Set<String> CLOSED_PARTICIPANT_STATUSES = Set.of("SETTLED", "REJECTED", "CANCELLED");
+
+    private final MongoTemplate mongoTemplate;
+    private final ParticipantStateStore participantState;
+    private final GroupMemberRepository groupMemberRepository;
+    private final SettlementPlanner settlementPlanner;
+
+    public SettlementPlanResponse getSettlementPlan(String groupId, String userId) {
+        requireMember(groupId, userId);
+
+        List<SettlementPlanResponse.CurrencyPlan> plans = new ArrayList<>();
+        for (Map.Entry<String, NetBalances> entry : computeNetBalances(groupId).entrySet()) {
+            NetBalances balances = entry.getValue();
+            List<SettlementPlanResponse.TransferInfo> transfers = new ArrayList<>();
+            for (SettlementPlanner.Transfer transfer : settlementPlanner.plan(balances.getNet())) {
+                transfers.add(SettlementPlanResponse.TransferInfo.builder()
+                        .fromUserId(balances.getUserIds().get(transfer.getFrom()))
+                        .toUserId(balances.getUserIds().get(transfer.getTo()))
+                        .amount(Money.ofMinor(transfer.getAmount(), entry.getKey()))
+                        .build());
+            }
+            plans.add(SettlementPlanResponse.CurrencyPlan.builder()
+                    .currency(entry.getKey())
+                    .transfers(transfers)
+                    .build());
+        }
+
+        return SettlementPlanResponse.builder()
+                .groupId(groupId)
+                .plans(plans)
+                .build();
+    }
+
+    public GroupBalanceResponse getGroupBalances(String groupId, String userId) {
+        requireMember(groupId, userId);
+
+        List<GroupBalanceResponse.CurrencyBalances> currencies = new ArrayList<>();
+        for (Map.Entry<String, NetBalances> entry : computeNetBalances(groupId).entrySet()) {
+            NetBalances balances = entry.getValue();
+            long[] net = balances.getNet();
+            List<GroupBalanceResponse.MemberBalance> members = new ArrayList<>(net.length);
+            for (int i = 0; i < net.length; i++) {
+                if (net[i] != 0) {
+                    members.add(GroupBalanceResponse.MemberBalance.builder()
+                            .userId(balances.getUserIds().get(i))
+                            .amount(Money.ofMinor(net[i], entry.getKey()))
+                            .build());
+                }
+            }
+            currencies.add(GroupBalanceResponse.CurrencyBalances.builder()
+                    .currency(entry.getKey())
+                    .balances(members)
+                    .build());
+        }
+
+        return GroupBalanceResponse.builder()
+                .groupId(groupId)
+                .currencies(currencies)
+                .build();
+    }
+
+    private void requireMember(String groupId, String userId) {
+        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, userId)) {
+            throw new IllegalArgumentException("You are not a member of this group or group not found");
+        }
+    }
+
+    // Net outstanding position of every user in the group, per currency, in minor units
+    public Map<String, NetBalances> computeNetBalances(String groupId) {
+        Query query = new Query(Criteria.where("groupId").is(groupId)
+                .and("status").in("PENDING", "ACTIVE"));
+        query.fields().include("paidBy", "currency", "manualSplits", "participantSettlement");
+        List<Expense> expenses = mongoTemplate.find(query, Expense.class);
+
+        Map<String, NetBalances> byCurrency = new TreeMap<>();
+        for (int from = 0; from < expenses.size(); from += STATUS_BATCH_SIZE) {
+            List<Expense> batch = expenses.subList(from, Math.min(expenses.size(), from + STATUS_BATCH_SIZE));
+            Map<String, List<ParticipantStatus>> statuses = participantState.findByExpenses(batch);
+            for (Expense expense : batch) {
+                for (ParticipantStatus ps : statuses.getOrDefault(expense.getId(), List.of())) {
+                    if (ps.getUserId().equals(expense.getPaidBy())
+                            || CLOSED_PARTICIPANT_STATUSES.contains(ps.getStatus())) {
+                        continue;
+                    }
+                    BigDecimal share = ps.getShareAmount() != null ? ps.getShareAmount() : splitAmount(expense, ps.getUserId());
+                    if (share == null || share.signum() == 0) {
+                        continue;
+                    }
+                    String currency = expense.getCurrency() != null ? expense.getCurrency() : "USD";
+                    long minor = Money.of(share, currency).getMinor();
+                    NetBalances balances = byCurrency.computeIfAbsent(currency, k -> new NetBalances());
+                    balances.add(expense.getPaidBy(), minor);
+                    balances.add(ps.getUserId(), -minor);
+                }
+            }
+        }
+        return byCurrency;
+    }
+
+    private BigDecimal splitAmount(Expense expense, String userId) {
+        if (expense.getManualSplits() == null) {
+            return null;
+        }
+        for (Expense.ManualSplit split : expense.getManualSplits()) {
+            if (split.getUserId().equals(userId)) {
+                return split.getAmount().bigDecimalValue();
+            }
+        }
+        return null;
+    }
+
+    public static class NetBalances {
+        private final Map<String, Integer> indexByUser = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private long[] net = new long[16];
+
+        void add(String userId, long amount) {
+            Integer index = indexByUser.get(userId);
+            if (index == null) {
+                index = userIds.size();
+                indexByUser.put(userId, index);
+                userIds.add(userId);
+                if (index == net.length) {
+                    net = Arrays.copyOf(net, net.length * 2);
+                }
+            }
+            net[index] += amount;
+        }
+
+        public List<String> getUserIds() {
+            return userIds;
+        }
+
+        public long[] getNet() {
+            return Arrays.copyOf(net, userIds.size());
+        }
+    }
+}
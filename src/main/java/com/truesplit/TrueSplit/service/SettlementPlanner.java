@@ -0,0 +1,136 @@
+package com.truesplit.TrueSplit.service;
+
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Turns net balances (in minor units, positive = is owed money) into a short list of transfers.
+ * Small groups are solved exactly by splitting members into the largest number of zero-sum
+ * subsets; larger groups fall back to a greedy max-heap creditor/debtor matcher.
+ */
+@Component
+public class SettlementPlanner {
+
+    static final int EXACT_SOLVER_LIMIT = 12;
+
+    @Value
+    public static class Transfer {
+        int from;
+        int to;
+        long amount;
+    }
+
+    public List<Transfer> plan(long[] net) {
+        int nonZero = 0;
+        for (long balance : net) {
+            if (balance != 0) nonZero++;
+        }
+        int[] members = new int[nonZero];
+        int k = 0;
+        long total = 0;
+        for (int i = 0; i < net.length; i++) {
+            if (net[i] != 0) {
+                members[k++] = i;
+                total += net[i];
+            }
+        }
+        if (total != 0) {
+            throw new IllegalStateException("Net balances do not add up to zero.");
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        if (nonZero == 0) {
+            return transfers;
+        }
+        if (nonZero <= EXACT_SOLVER_LIMIT) {
+            for (int[] subset : zeroSumPartition(members, net)) {
+                greedy(subset, net, transfers);
+            }
+        } else {
+            greedy(members, net, transfers);
+        }
+        return transfers;
+    }
+
+    // dp[mask] = most zero-sum groups the members in mask can be split into;
+    // a group of size s needs s - 1 transfers, so more groups means fewer transfers
+    private List<int[]> zeroSumPartition(int[] members, long[] net) {
+        int n = members.length;
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        int[] dp = new int[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + net[members[low]];
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                best = Math.max(best, dp[mask ^ bit]);
+            }
+            dp[mask] = best + (sum[mask] == 0 ? 1 : 0);
+        }
+
+        // Walk back from the full set; every zero-sum mask on the path closes a group
+        List<int[]> groups = new ArrayList<>();
+        int mask = full;
+        int groupStart = full;
+        while (mask != 0) {
+            int gain = sum[mask] == 0 ? 1 : 0;
+            int next = -1;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (dp[mask ^ bit] + gain == dp[mask]) {
+                    next = mask ^ bit;
+                    break;
+                }
+            }
+            if (sum[next] == 0) {
+                groups.add(membersOf(groupStart ^ next, members));
+                groupStart = next;
+            }
+            mask = next;
+        }
+        return groups;
+    }
+
+    private int[] membersOf(int mask, int[] members) {
+        int[] subset = new int[Integer.bitCount(mask)];
+        int k = 0;
+        for (int rest = mask; rest != 0; rest &= rest - 1) {
+            subset[k++] = members[Integer.numberOfTrailingZeros(rest)];
+        }
+        return subset;
+    }
+
+    private void greedy(int[] members, long[] net, List<Transfer> out) {
+        long[] remaining = new long[net.length];
+        PriorityQueue<Integer> creditors = new PriorityQueue<>(
+                Math.max(1, members.length), (a, b) -> Long.compare(remaining[b], remaining[a]));
+        PriorityQueue<Integer> debtors = new PriorityQueue<>(
+                Math.max(1, members.length), (a, b) -> Long.compare(remaining[b], remaining[a]));
+        for (int member : members) {
+            if (net[member] > 0) {
+                remaining[member] = net[member];
+                creditors.add(member);
+            } else if (net[member] < 0) {
+                remaining[member] = -net[member];
+                debtors.add(member);
+            }
+        }
+
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.poll();
+            int debtor = debtors.poll();
+            long amount = Math.min(remaining[creditor], remaining[debtor]);
+            out.add(new Transfer(debtor, creditor, amount));
+            remaining[creditor] -= amount;
+            remaining[debtor] -= amount;
+            if (remaining[creditor] > 0) creditors.add(creditor);
+            if (remaining[debtor] > 0) debtors.add(debtor);
+        }
+    }
+}
@@ -1,36 +1,106 @@
 package com.truesplit.TrueSplit.service;
 
-import com.truesplit.TrueSplit.Repository.ExpenseRepository;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.SlugCounter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.text.Normalizer;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class SlugGeneratorService {
 
-    private final ExpenseRepository expenseRepository;
+    private final MongoTemplate mongoTemplate;
+    private static final String SLUG_INDEX = "titleSlug"; // default name of the @Indexed(unique) on Expense.titleSlug
     private static final Pattern NON_LATIN = Pattern.compile("[^\\w-]");
     private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
+    private static final Pattern DASHES = Pattern.compile("-+");
 
+    /**
+     * Allocates a slug with one atomic $inc on a per-base-slug counter, so concurrent
+     * creates of the same title never receive the same value.
+     * The first allocation gets the bare slug and later ones get -1, -2, and so on.
+     * A counter is seeded past any slugs of the same base that were created before it existed.
+     */
     public String generateUniqueSlug(String title) {
         String baseSlug = generateSlug(title);
-        String slug = baseSlug;
-        int counter = 1;
+        long seq = nextSequence(baseSlug);
+        return seq == 1 ? baseSlug : baseSlug + "-" + (seq - 1);
+    }
+
+    /**
+     * For a create whose slug was already taken: moves the counter past every existing slug of the
+     * base (a counter started before seeding existed can lag behind them) and allocates again.
+     */
+    public String generateSlugAfterCollision(String title) {
+        String baseSlug = generateSlug(title);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(baseSlug)),
+                new Update().max("seq", highestExistingSequence(baseSlug)), SlugCounter.class);
+        long seq = nextSequence(baseSlug);
+        return seq == 1 ? baseSlug : baseSlug + "-" + (seq - 1);
+    }
+
+    // Only a clash on the titleSlug index means the slug was taken; any other unique index is a real error
+    static boolean isSlugCollision(DuplicateKeyException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains("index: " + SLUG_INDEX + " dup key");
+    }
 
-        while (expenseRepository.existsByTitleSlug(slug)) {
-            slug = baseSlug + "-" + counter;
-            counter++;
+    private long nextSequence(String baseSlug) {
+        Query query = new Query(Criteria.where("_id").is(baseSlug));
+        Update update = new Update().inc("seq", 1);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true);
+        SlugCounter counter = mongoTemplate.findAndModify(query, update, options, SlugCounter.class);
+        if (counter != null) {
+            return counter.getSeq();
         }
 
-        return slug;
+        SlugCounter seeded = new SlugCounter();
+        seeded.setId(baseSlug);
+        seeded.setSeq(highestExistingSequence(baseSlug) + 1);
+        try {
+            return mongoTemplate.insert(seeded).getSeq();
+        } catch (DuplicateKeyException ex) {
+            // Another create seeded it first; from here on it is a plain $inc
+            return mongoTemplate.findAndModify(query, update, options, SlugCounter.class).getSeq();
+        }
+    }
+
+    // One anchored-prefix query on the unique titleSlug index: the bare slug counts as 1, slug-n as n + 1
+    private long highestExistingSequence(String baseSlug) {
+        Pattern family = Pattern.compile("^" + Pattern.quote(baseSlug) + "(?:-(\\d+))?$");
+        // Slugs are only word characters and dashes, so the base needs no escaping and the prefix stays plain
+        Query query = new Query(Criteria.where("titleSlug").regex("^" + baseSlug));
+        query.fields().include("titleSlug");
+        long highest = 0;
+        for (Expense expense : mongoTemplate.find(query, Expense.class)) {
+            Matcher matcher = family.matcher(expense.getTitleSlug());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String suffix = matcher.group(1);
+            if (suffix == null) {
+                highest = Math.max(highest, 1);
+            } else if (suffix.length() < 18) {
+                highest = Math.max(highest, Long.parseLong(suffix) + 1);
+            }
+        }
+        return highest;
     }
 
     private String generateSlug(String title) {
         String nowhitespace = WHITESPACE.matcher(title).replaceAll("-");
         String normalized = Normalizer.normalize(nowhitespace, Normalizer.Form.NFD);
         String slug = NON_LATIN.matcher(normalized).replaceAll("");
-        return slug.toLowerCase().replaceAll("-+", "-");
+        slug = DASHES.matcher(slug.toLowerCase()).replaceAll("-");
+        return slug.isEmpty() || "-".equals(slug) ? "expense" : slug;
     }
 }
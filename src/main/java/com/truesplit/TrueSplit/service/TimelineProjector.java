@@ -0,0 +1,170 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import com.truesplit.TrueSplit.model.OutboxEvent;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.model.UserTimelineEntry;
+import com.truesplit.TrueSplit.service.outbox.OutboxHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Keeps {@code user_timeline} in step with expenses: on every outbox event the expense is
+ * re-projected onto the timeline of its creator and each participant, off the request thread and
+ * only for changes that were actually written, so the dashboard
+ * reads one indexed page instead of assembling each expense. Cancelled expenses leave the feed.
+ * {@code timeline.backfill-on-startup=true} projects every existing expense once, in batches.
+ */
+@Component
+@Slf4j
+public class TimelineProjector implements ApplicationRunner, OutboxHandler {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Set<String> VISIBLE_STATUSES = Set.of("PENDING", "ACTIVE", "SETTLED");
+
+    private final MongoTemplate mongoTemplate;
+    private final ParticipantStateStore participantState;
+    private final UserRepository userRepository;
+    private final boolean backfill;
+
+    public TimelineProjector(MongoTemplate mongoTemplate, ParticipantStateStore participantState,
+                             UserRepository userRepository,
+                             @Value("${timeline.backfill-on-startup:false}") boolean backfill) {
+        this.mongoTemplate = mongoTemplate;
+        this.participantState = participantState;
+        this.userRepository = userRepository;
+        this.backfill = backfill;
+    }
+
+    // Re-projecting is idempotent, so a redelivered event or a retry after a failure is harmless
+    @Override
+    public void handle(OutboxEvent event) {
+        Expense expense = mongoTemplate.findById(event.getExpenseId(), Expense.class);
+        if (expense != null) {
+            project(List.of(expense));
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!backfill) {
+            return;
+        }
+
+        long projected = 0;
+        String lastId = null;
+        while (true) {
+            Query query = new Query();
+            if (lastId != null) {
+                query.addCriteria(Criteria.where("_id").gt(new ObjectId(lastId)));
+            }
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(BATCH_SIZE);
+            List<Expense> batch = mongoTemplate.find(query, Expense.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+            project(batch);
+            projected += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("[TIMELINE] Projected {} expense(s) onto user timelines", projected);
+    }
+
+    void project(List<Expense> expenses) {
+        Map<String, List<ParticipantStatus>> statuses = participantState.findByExpenses(expenses);
+        Set<String> userIds = new HashSet<>();
+        expenses.forEach(expense -> userIds.addAll(expense.getParticipants()));
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+
+        Instant now = Instant.now();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserTimelineEntry.class);
+        for (Expense expense : expenses) {
+            if (!VISIBLE_STATUSES.contains(expense.getStatus())) {
+                ops.remove(new Query(Criteria.where("expenseId").is(expense.getId())));
+                continue;
+            }
+
+            Set<String> audience = new LinkedHashSet<>(expense.getParticipants());
+            if (expense.getCreatedBy() != null) {
+                audience.add(expense.getCreatedBy());
+            }
+            // Someone removed from the expense drops off its feed
+            ops.remove(new Query(Criteria.where("expenseId").is(expense.getId()).and("userId").nin(audience)));
+
+            List<UserTimelineEntry.Participant> participants = participantSummaries(expense, users);
+            Set<String> settled = new HashSet<>();
+            for (ParticipantStatus ps : statuses.getOrDefault(expense.getId(), List.of())) {
+                if ("SETTLED".equals(ps.getStatus())) {
+                    settled.add(ps.getUserId());
+                }
+            }
+            for (String userId : audience) {
+                ops.upsert(new Query(Criteria.where("userId").is(userId).and("expenseId").is(expense.getId())),
+                        new Update()
+                                .set("title", expense.getTitle())
+                                .set("titleSlug", expense.getTitleSlug())
+                                .set("participants", participants)
+                                .set("time", expense.getExpenseDateTime())
+                                .set("pendingAmount", pendingAmount(expense, settled, userId))
+                                .set("currency", expense.getCurrency())
+                                .set("updatedAt", now));
+            }
+        }
+        ops.execute();
+    }
+
+    private List<UserTimelineEntry.Participant> participantSummaries(Expense expense, Map<String, User> users) {
+        List<UserTimelineEntry.Participant> participants = new ArrayList<>(expense.getParticipants().size());
+        for (String participantId : expense.getParticipants()) {
+            User user = users.get(participantId);
+            if (user == null) {
+                continue;
+            }
+            UserTimelineEntry.Participant participant = new UserTimelineEntry.Participant();
+            participant.setId(user.getId());
+            participant.setName(user.getName());
+            participant.setAvatar(user.getPicture());
+            participants.add(participant);
+        }
+        return participants;
+    }
+
+    // The payer sees what everyone else still owes them; anyone else sees their own unsettled share
+    static Money pendingAmount(Expense expense, Set<String> settled, String userId) {
+        String currency = expense.getCurrency() != null ? expense.getCurrency() : "USD";
+        Money pending = Money.zero(currency);
+        if (expense.getManualSplits() == null) {
+            return pending;
+        }
+        boolean isPayer = Objects.equals(expense.getPaidBy(), userId);
+        for (Expense.ManualSplit split : expense.getManualSplits()) {
+            if (settled.contains(split.getUserId())) {
+                continue;
+            }
+            boolean counts = isPayer
+                    ? !Objects.equals(split.getUserId(), userId)
+                    : Objects.equals(split.getUserId(), userId);
+            if (counts) {
+                pending = pending.plus(Money.of(split.getAmount(), currency));
+            }
+        }
+        return pending;
+    }
+}
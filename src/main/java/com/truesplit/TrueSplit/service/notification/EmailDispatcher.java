@@ -0,0 +1,238 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Sends queued email on its own small pool, so a slow SMTP server backs up {@code email_queue}
+ * instead of request threads. A token bucket caps how many messages are claimed per second; the
+ * claim/lease/retry cycle is the same as {@code OutboxDispatcher}'s. Transient messages skip the
+ * collection, share the bucket, and retry in memory until they are sent or past discardAfter.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final MailTransport transport;
+    private final TokenBucket rateLimit;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor transientExecutor;
+    private final long transientRetryMillis;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long baseBackoffMillis;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder transientSent = new LongAdder();
+    private final LongAdder transientDropped = new LongAdder();
+
+    public EmailDispatcher(MongoTemplate mongoTemplate, MailTransport transport,
+                           @Value("${notifications.email.enabled:true}") boolean enabled,
+                           @Value("${notifications.email.workers:2}") int workers,
+                           @Value("${notifications.email.queue-capacity:64}") int queueCapacity,
+                           @Value("${notifications.email.batch-size:50}") int batchSize,
+                           @Value("${notifications.email.rate-per-second:5}") double ratePerSecond,
+                           @Value("${notifications.email.burst:20}") int burst,
+                           @Value("${notifications.email.max-attempts:6}") int maxAttempts,
+                           @Value("${notifications.email.lease-ms:120000}") long leaseMillis,
+                           @Value("${notifications.email.base-backoff-ms:5000}") long baseBackoffMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.transport = transport;
+        this.rateLimit = new TokenBucket(burst, ratePerSecond);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseMillis = leaseMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.transientExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mail-transient");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.transientExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // Roughly one permit's worth of refill
+        this.transientRetryMillis = Math.max(1, (long) (1000 / ratePerSecond));
+    }
+
+    public void sendTransient(EmailMessage message) {
+        transientExecutor.execute(() -> deliverTransient(message));
+    }
+
+    private void deliverTransient(EmailMessage message) {
+        if (message.getDiscardAfter() != null && Instant.now().isAfter(message.getDiscardAfter())) {
+            transientDropped.increment();
+            log.warn("[MAIL] Dropped undelivered transient message to {}: {}", message.getRecipient(), message.getSubject());
+            return;
+        }
+        if (rateLimit.acquireUpTo(1) == 0) {
+            transientExecutor.schedule(() -> deliverTransient(message), transientRetryMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        message.setAttempts(message.getAttempts() + 1);
+        try {
+            transport.send(message);
+            transientSent.increment();
+        } catch (RuntimeException ex) {
+            if (message.getAttempts() >= maxAttempts) {
+                transientDropped.increment();
+                log.error("[MAIL] Giving up on transient message to {} after {} attempts",
+                        message.getRecipient(), message.getAttempts(), ex);
+                return;
+            }
+            long delay = baseBackoffMillis << Math.min(message.getAttempts() - 1, 16);
+            log.warn("[MAIL] Transient message to {} failed (attempt {}), retrying in {} ms: {}",
+                    message.getRecipient(), message.getAttempts(), delay, ex.getMessage());
+            transientExecutor.schedule(() -> deliverTransient(message), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.email.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        int room = Math.min(batchSize, executor.getQueue().remainingCapacity());
+        // Permits are spent on claiming, so a claimed message is always sent without waiting
+        int permits = room == 0 ? 0 : rateLimit.acquireUpTo(room);
+        if (permits == 0) {
+            return;
+        }
+        int claimed = 0;
+        try {
+            for (EmailMessage message : claim(permits)) {
+                executor.execute(() -> deliver(message));
+                claimed++;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("[MAIL] Poll failed: {}", ex.getMessage());
+        } finally {
+            // An empty or short queue must not drain the bucket the burst and transient mail rely on
+            rateLimit.release(permits - claimed);
+        }
+    }
+
+    private List<EmailMessage> claim(int limit) {
+        Instant now = Instant.now();
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("status").is("PENDING").and("availableAt").lte(now),
+                Criteria.where("status").is("SENDING").and("lockedUntil").lt(now));
+
+        Query candidates = new Query(due)
+                .with(Sort.by(Sort.Order.asc("priority"), Sort.Order.asc("availableAt")))
+                .limit(limit);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, EmailMessage.class).stream()
+                .map(EmailMessage::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String token = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), due)),
+                new Update().set("status", "SENDING")
+                        .set("lockedUntil", now.plusMillis(leaseMillis))
+                        .set("claimToken", token)
+                        .inc("attempts", 1),
+                EmailMessage.class);
+        return mongoTemplate.find(new Query(Criteria.where("claimToken").is(token)), EmailMessage.class);
+    }
+
+    private void deliver(EmailMessage message) {
+        if (message.getDiscardAfter() != null && Instant.now().isAfter(message.getDiscardAfter())) {
+            mongoTemplate.remove(ownClaim(message), EmailMessage.class);
+            discarded.increment();
+            log.info("[MAIL] Dropped expired message to {}: {}", message.getRecipient(), message.getSubject());
+            return;
+        }
+        try {
+            transport.send(message);
+        } catch (RuntimeException ex) {
+            reschedule(message, ex);
+            return;
+        }
+        mongoTemplate.remove(ownClaim(message), EmailMessage.class);
+        sent.increment();
+    }
+
+    private void reschedule(EmailMessage message, RuntimeException ex) {
+        Update update = new Update().unset("claimToken").set("lastError", String.valueOf(ex.getMessage()));
+        if (message.getAttempts() >= maxAttempts) {
+            update.set("status", "FAILED").set("failedAt", Instant.now());
+            failed.increment();
+            log.error("[MAIL] Giving up on message to {} after {} attempts",
+                    message.getRecipient(), message.getAttempts(), ex);
+        } else {
+            long delay = baseBackoffMillis << Math.min(message.getAttempts() - 1, 16);
+            update.set("status", "PENDING").set("availableAt", Instant.now().plusMillis(delay));
+            retried.increment();
+            log.warn("[MAIL] Message to {} failed (attempt {}), retrying in {} ms: {}",
+                    message.getRecipient(), message.getAttempts(), delay, ex.getMessage());
+        }
+        mongoTemplate.updateFirst(ownClaim(message), update, EmailMessage.class);
+    }
+
+    private Query ownClaim(EmailMessage message) {
+        return new Query(Criteria.where("_id").is(message.getId()).and("claimToken").is(message.getClaimToken()));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("sent", sent.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        stats.put("discarded", discarded.sum());
+        stats.put("transientSent", transientSent.sum());
+        stats.put("transientDropped", transientDropped.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        transientExecutor.shutdown();
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+// Enqueueing is one insert; EmailDispatcher does the sending off the request thread
+@Component
+@RequiredArgsConstructor
+public class EmailQueue {
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailDispatcher emailDispatcher;
+
+    /**
+     * For mail that must not be written to the database, such as a one-time code. It is sent from
+     * memory ahead of the queue and lost if this instance stops first; the user can ask again.
+     */
+    public void sendNow(String recipient, String subject, String body, Instant discardAfter) {
+        emailDispatcher.sendTransient(message(recipient, subject, body, EmailMessage.PRIORITY_IMMEDIATE, discardAfter));
+    }
+
+    public void enqueue(String recipient, String subject, String body, int priority, Instant discardAfter) {
+        mongoTemplate.insert(message(recipient, subject, body, priority, discardAfter));
+    }
+
+    public void enqueueAll(List<EmailMessage> messages) {
+        if (!messages.isEmpty()) {
+            mongoTemplate.insert(messages, EmailMessage.class);
+        }
+    }
+
+    public static EmailMessage message(String recipient, String subject, String body, int priority,
+                                       Instant discardAfter) {
+        Instant now = Instant.now();
+        EmailMessage message = new EmailMessage();
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setPriority(priority);
+        message.setStatus("PENDING");
+        message.setAttempts(0);
+        message.setAvailableAt(now);
+        message.setDiscardAfter(discardAfter);
+        message.setCreatedAt(now);
+        return message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "notifications.email.transport", havingValue = "log")
+@Slf4j
+public class LoggingMailTransport implements MailTransport {
+
+    private static final int KEEP = 100;
+
+    private final Deque<EmailMessage> sent = new ArrayDeque<>();
+
+    @Override
+    public void send(EmailMessage message) {
+        log.info("[MAIL] To {}: {}", message.getRecipient(), message.getSubject());
+        synchronized (sent) {
+            if (sent.size() == KEEP) {
+                sent.removeFirst();
+            }
+            sent.addLast(message);
+        }
+    }
+
+    // Most recent last
+    public List<EmailMessage> sent() {
+        synchronized (sent) {
+            return new ArrayList<>(sent);
+        }
+    }
+}
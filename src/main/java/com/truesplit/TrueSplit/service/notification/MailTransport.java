@@ -0,0 +1,13 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+
+/**
+ * Where queued email actually goes. {@code notifications.email.transport} picks {@code smtp}
+ * (the configured {@code spring.mail} server, which can be a local stand-in such as MailHog) or
+ * {@code log}, which keeps messages in memory and sends nothing.
+ */
+public interface MailTransport {
+
+    void send(EmailMessage message);
+}
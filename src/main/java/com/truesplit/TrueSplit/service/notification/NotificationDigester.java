@@ -0,0 +1,105 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+import com.truesplit.TrueSplit.model.Notification;
+import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces in-app notifications into email: every interval, each recipient with something new
+ * gets one message, however many payment requests piled up in the meantime.
+ */
+@Component
+@Slf4j
+public class NotificationDigester {
+
+    static final int MAX_LINES = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final EmailQueue emailQueue;
+    private final boolean enabled;
+
+    public NotificationDigester(MongoTemplate mongoTemplate, UserRepository userRepository, EmailQueue emailQueue,
+                                @Value("${notifications.digest.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.emailQueue = emailQueue;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.digest.interval-ms:300000}")
+    public void digest() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException ex) {
+            log.warn("[DIGEST] Run failed: {}", ex.getMessage());
+        }
+    }
+
+    private void run() {
+        // Claiming unsets emailPending, so concurrent instances never digest the same row twice
+        String token = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(new Query(Criteria.where("emailPending").is(true)),
+                new Update().unset("emailPending").set("digestToken", token),
+                Notification.class);
+
+        Query claimed = new Query(Criteria.where("digestToken").is(token))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        claimed.fields().include("userId").include("message");
+        Map<String, List<String>> byUser = mongoTemplate.find(claimed, Notification.class).stream()
+                .collect(Collectors.groupingBy(Notification::getUserId, LinkedHashMap::new,
+                        Collectors.mapping(Notification::getMessage, Collectors.toList())));
+        if (byUser.isEmpty()) {
+            return;
+        }
+
+        Map<String, User> users = userRepository.findAllById(byUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<EmailMessage> messages = new ArrayList<>();
+        byUser.forEach((userId, lines) -> {
+            User user = users.get(userId);
+            if (user != null && user.getEmail() != null) {
+                messages.add(compose(user, lines));
+            }
+        });
+        emailQueue.enqueueAll(messages);
+        mongoTemplate.updateMulti(new Query(Criteria.where("digestToken").is(token)),
+                new Update().unset("digestToken"), Notification.class);
+        log.info("[DIGEST] Queued {} digest emails", messages.size());
+    }
+
+    static EmailMessage compose(User user, List<String> lines) {
+        String subject = lines.size() == 1
+                ? lines.get(0)
+                : "You have " + lines.size() + " new updates on TrueSplit";
+        StringBuilder body = new StringBuilder("Hi ").append(user.getName() != null ? user.getName() : "there")
+                .append(",\n\n");
+        lines.stream().limit(MAX_LINES).forEach(line -> body.append("- ").append(line).append('\n'));
+        if (lines.size() > MAX_LINES) {
+            body.append("...and ").append(lines.size() - MAX_LINES).append(" more.\n");
+        }
+        body.append("\nOpen TrueSplit to see the details.");
+        return EmailQueue.message(user.getEmail(), subject, body.toString(), EmailMessage.PRIORITY_DIGEST, null);
+    }
+}
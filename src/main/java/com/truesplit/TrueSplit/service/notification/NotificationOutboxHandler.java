@@ -0,0 +1,127 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ExpenseEventType;
+import com.truesplit.TrueSplit.model.Notification;
+import com.truesplit.TrueSplit.model.OutboxEvent;
+import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.service.outbox.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Turns expense events into in-app notifications; the ones worth an email are flagged for the digest
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxHandler implements OutboxHandler {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private static final Set<ExpenseEventType> EMAILED = EnumSet.of(
+            ExpenseEventType.EXPENSE_CREATED,
+            ExpenseEventType.PAYMENT_REQUESTED,
+            ExpenseEventType.PAYMENT_APPROVED,
+            ExpenseEventType.PAYMENT_REJECTED);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+
+    @Override
+    public void handle(OutboxEvent event) {
+        Query query = new Query(Criteria.where("_id").is(event.getExpenseId()));
+        query.fields().include("title").include("paidBy").include("participants");
+        Expense expense = mongoTemplate.findOne(query, Expense.class);
+        if (expense == null) {
+            return;
+        }
+        Set<String> recipients = recipients(event, expense);
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        String actorName = event.getActorId() == null ? null : userRepository.findById(event.getActorId())
+                .map(User::getName)
+                .orElse("Someone");
+        String message = message(event.getType(), actorName, expense.getTitle());
+        Instant now = Instant.now();
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (String userId : recipients) {
+            Notification notification = new Notification();
+            notification.setUserId(userId);
+            notification.setType(event.getType());
+            notification.setExpenseId(event.getExpenseId());
+            notification.setActorId(event.getActorId());
+            notification.setMessage(message);
+            notification.setRead(false);
+            notification.setSourceEventId(event.getId());
+            notification.setEmailPending(EMAILED.contains(event.getType()) ? Boolean.TRUE : null);
+            notification.setCreatedAt(now);
+            notifications.add(notification);
+        }
+        insert(notifications);
+    }
+
+    static Set<String> recipients(OutboxEvent event, Expense expense) {
+        Set<String> recipients = new LinkedHashSet<>();
+        switch (event.getType()) {
+            case PARTICIPANT_ACCEPTED, PARTICIPANT_REJECTED, PAYMENT_REQUESTED, PAYMENT_REQUEST_CANCELLED ->
+                    recipients.add(expense.getPaidBy());
+            case PAYMENT_APPROVED, PAYMENT_REJECTED -> recipients.add(event.getUserId());
+            default -> {
+                recipients.add(expense.getPaidBy());
+                if (expense.getParticipants() != null) {
+                    recipients.addAll(expense.getParticipants());
+                }
+            }
+        }
+        recipients.remove(null);
+        recipients.remove(event.getActorId());
+        return recipients;
+    }
+
+    static String message(ExpenseEventType type, String actor, String title) {
+        String who = actor != null ? actor : "TrueSplit";
+        String expense = "\"" + title + "\"";
+        return switch (type) {
+            case EXPENSE_CREATED -> who + " added you to " + expense;
+            case PARTICIPANT_ACCEPTED -> who + " accepted " + expense;
+            case PARTICIPANT_REJECTED -> who + " rejected " + expense;
+            case EXPENSE_ACTIVATED -> expense + " is now active";
+            case PAYMENT_REQUESTED -> who + " marked their share of " + expense + " as paid";
+            case PAYMENT_REQUEST_CANCELLED -> who + " withdrew their payment for " + expense;
+            case PAYMENT_APPROVED -> who + " approved your payment for " + expense;
+            case PAYMENT_REJECTED -> who + " rejected your payment for " + expense;
+            case EXPENSE_SETTLED -> expense + " is fully settled";
+            case EXPENSE_CANCELLED -> actor != null ? actor + " cancelled " + expense : expense + " was cancelled";
+        };
+    }
+
+    // A redelivered event hits the unique (sourceEventId, userId) index and is skipped
+    private void insert(List<Notification> notifications) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        ops.insert(notifications);
+        try {
+            ops.execute();
+        } catch (BulkOperationException ex) {
+            boolean onlyDuplicates = ex.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw ex;
+            }
+        } catch (DuplicateKeyException ignored) {
+            // Already delivered
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.exception.NotFoundException;
+import com.truesplit.TrueSplit.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public Page<Notification> getNotifications(String userId, Pageable pageable, boolean unreadOnly) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (unreadOnly) {
+            criteria = criteria.and("read").is(false);
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        long total = mongoTemplate.count(query, Notification.class);
+        List<Notification> notifications = mongoTemplate.find(query.with(pageable), Notification.class);
+        return new PageImpl<>(notifications, pageable, total);
+    }
+
+    // Counted off the (userId, read, createdAt) index without touching documents
+    public long getUnreadCount(String userId) {
+        return mongoTemplate.count(new Query(Criteria.where("userId").is(userId).and("read").is(false)),
+                Notification.class);
+    }
+
+    public void markRead(String userId, String notificationId) {
+        long matched = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(notificationId).and("userId").is(userId)),
+                new Update().set("read", true),
+                Notification.class).getMatchedCount();
+        if (matched == 0) {
+            throw new NotFoundException("Notification not found.");
+        }
+    }
+
+    public long markAllRead(String userId) {
+        return mongoTemplate.updateMulti(
+                new Query(Criteria.where("userId").is(userId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class).getModifiedCount();
+    }
+}
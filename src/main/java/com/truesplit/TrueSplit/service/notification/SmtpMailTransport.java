@@ -0,0 +1,25 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import com.truesplit.TrueSplit.model.EmailMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "notifications.email.transport", havingValue = "smtp", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SmtpMailTransport implements MailTransport {
+
+    private final JavaMailSender javaMailSender;
+
+    @Override
+    public void send(EmailMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        javaMailSender.send(mail);
+    }
+}
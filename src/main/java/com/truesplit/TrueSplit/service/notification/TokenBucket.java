@@ -0,0 +1,53 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket: holds up to {@code capacity} permits and regains {@code permitsPerSecond} of them
+ * continuously, so short bursts pass and the long-run rate stays capped.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double permitsPerNano;
+    private final LongSupplier clock;
+    private double available;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, double permitsPerSecond) {
+        this(capacity, permitsPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double permitsPerSecond, LongSupplier clock) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and rate.");
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.clock = clock;
+        this.available = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    // Takes up to {@code wanted} whole permits and returns how many it got
+    public synchronized int acquireUpTo(int wanted) {
+        refill();
+        int granted = (int) Math.min(wanted, Math.floor(available));
+        available -= granted;
+        return granted;
+    }
+
+    // Hands back permits taken but not used, never beyond capacity
+    public synchronized void release(int permits) {
+        if (permits > 0) {
+            refill();
+            available = Math.min(capacity, available + permits);
+        }
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        available = Math.min(capacity, available + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
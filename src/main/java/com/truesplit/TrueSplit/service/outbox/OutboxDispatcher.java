@@ -0,0 +1,177 @@
+package com.truesplit.TrueSplit.service.outbox;
+
+import com.truesplit.TrueSplit.model.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox on a fixed worker pool. Each poll claims at most as many due events as the
+ * work queue has room for, so a slow consumer backs up in Mongo rather than in memory. Claims are
+ * leases: an event whose dispatcher died is claimed again once {@code lockedUntil} passes, which
+ * together with retry on failure gives at-least-once delivery across instances.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final List<OutboxHandler> handlers;
+    private final ThreadPoolExecutor executor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseMillis;
+    private final long baseBackoffMillis;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public OutboxDispatcher(MongoTemplate mongoTemplate, List<OutboxHandler> handlers,
+                            @Value("${outbox.enabled:true}") boolean enabled,
+                            @Value("${outbox.workers:4}") int workers,
+                            @Value("${outbox.queue-capacity:256}") int queueCapacity,
+                            @Value("${outbox.batch-size:100}") int batchSize,
+                            @Value("${outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${outbox.lease-ms:60000}") long leaseMillis,
+                            @Value("${outbox.base-backoff-ms:1000}") long baseBackoffMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.handlers = handlers;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseMillis = leaseMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Only reachable if the queue filled between the capacity check and submit
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        int room = Math.min(batchSize, executor.getQueue().remainingCapacity());
+        if (room == 0) {
+            return;
+        }
+        try {
+            for (OutboxEvent event : claim(room)) {
+                executor.execute(() -> deliver(event));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("[OUTBOX] Poll failed: {}", ex.getMessage());
+        }
+    }
+
+    // Three round trips however many events: pick candidates, lease them, read back what we won
+    private List<OutboxEvent> claim(int limit) {
+        Instant now = Instant.now();
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("status").is("PENDING").and("availableAt").lte(now),
+                Criteria.where("status").is("PROCESSING").and("lockedUntil").lt(now));
+
+        Query candidates = new Query(due).with(Sort.by(Sort.Direction.ASC, "availableAt")).limit(limit);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, OutboxEvent.class).stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String token = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), due)),
+                new Update().set("status", "PROCESSING")
+                        .set("lockedUntil", now.plusMillis(leaseMillis))
+                        .set("claimToken", token)
+                        .inc("attempts", 1),
+                OutboxEvent.class);
+        return mongoTemplate.find(new Query(Criteria.where("claimToken").is(token)), OutboxEvent.class);
+    }
+
+    private void deliver(OutboxEvent event) {
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.handles(event.getType())) {
+                    handler.handle(event);
+                }
+            }
+        } catch (RuntimeException ex) {
+            reschedule(event, ex);
+            return;
+        }
+        mongoTemplate.remove(ownClaim(event), OutboxEvent.class);
+        delivered.increment();
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException ex) {
+        Update update = new Update().unset("claimToken").set("lastError", String.valueOf(ex.getMessage()));
+        if (event.getAttempts() >= maxAttempts) {
+            update.set("status", "FAILED");
+            failed.increment();
+            log.error("[OUTBOX] Giving up on {} for expense {} after {} attempts",
+                    event.getType(), event.getExpenseId(), event.getAttempts(), ex);
+        } else {
+            long delay = baseBackoffMillis << Math.min(event.getAttempts() - 1, 16);
+            update.set("status", "PENDING").set("availableAt", Instant.now().plusMillis(delay));
+            retried.increment();
+            log.warn("[OUTBOX] {} for expense {} failed (attempt {}), retrying in {} ms: {}",
+                    event.getType(), event.getExpenseId(), event.getAttempts(), delay, ex.getMessage());
+        }
+        mongoTemplate.updateFirst(ownClaim(event), update, OutboxEvent.class);
+    }
+
+    // If our lease expired and someone else claimed the event, leave their claim alone
+    private Query ownClaim(OutboxEvent event) {
+        return new Query(Criteria.where("_id").is(event.getId()).and("claimToken").is(event.getClaimToken()));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("delivered", delivered.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Unfinished events keep their lease and are picked up again after it expires
+            executor.shutdownNow();
+        }
+    }
+}
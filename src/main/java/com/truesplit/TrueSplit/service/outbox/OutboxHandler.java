@@ -0,0 +1,17 @@
+package com.truesplit.TrueSplit.service.outbox;
+
+import com.truesplit.TrueSplit.model.ExpenseEventType;
+import com.truesplit.TrueSplit.model.OutboxEvent;
+
+/**
+ * Consumer of outbox events. Delivery is at least once: an event is retried when any handler
+ * throws, so every handler must tolerate seeing the same event again.
+ */
+public interface OutboxHandler {
+
+    default boolean handles(ExpenseEventType type) {
+        return true;
+    }
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,55 @@
+package com.truesplit.TrueSplit.service.outbox;
+
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ExpenseEventType;
+import com.truesplit.TrueSplit.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records domain events for {@link OutboxDispatcher}. Publishing is a single insert, so the request
+ * never waits on whatever consumes the event. Callers publish inside the expense transaction, so an
+ * event exists exactly when the change it describes was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final MongoTemplate mongoTemplate;
+
+    public void publish(ExpenseEventType type, Expense expense, String actorId, String userId) {
+        mongoTemplate.insert(event(type, expense, actorId, userId, Instant.now()));
+    }
+
+    public void publishAll(ExpenseEventType type, Expense expense, String actorId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            events.add(event(type, expense, actorId, userId, now));
+        }
+        mongoTemplate.insert(events, OutboxEvent.class);
+    }
+
+    private OutboxEvent event(ExpenseEventType type, Expense expense, String actorId, String userId, Instant now) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setExpenseId(expense.getId());
+        event.setPayerId(expense.getPaidBy());
+        event.setActorId(actorId);
+        event.setUserId(userId);
+        event.setStatus("PENDING");
+        event.setAttempts(0);
+        event.setAvailableAt(now);
+        event.setCreatedAt(now);
+        return event;
+    }
+}
@@ -0,0 +1,29 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import com.truesplit.TrueSplit.model.Money;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EqualSplitStrategy implements SplitStrategy {
+
+    @Override
+    public String type() {
+        return "EQUAL";
+    }
+
+    @Override
+    public boolean requiresEntries() {
+        return false;
+    }
+
+    @Override
+    public long inputOf(ManualSplitEntry entry, String currency) {
+        return 0;
+    }
+
+    @Override
+    public void split(long total, long[] inputs, long[] out, long[] scratch) {
+        Money.splitMinor(total, out.length, out);
+    }
+}
@@ -0,0 +1,56 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import com.truesplit.TrueSplit.model.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Each participant pays for their own items; whatever the items don't cover (tax, tip, service)
+ * is spread in proportion to each participant's item subtotal.
+ */
+@Component
+public class ItemizedSplitStrategy implements SplitStrategy {
+
+    @Override
+    public String type() {
+        return "ITEMIZED";
+    }
+
+    @Override
+    public long inputOf(ManualSplitEntry entry, String currency) {
+        if (entry == null) {
+            return 0;
+        }
+        if (entry.getItems() == null || entry.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Each itemized split entry needs at least one item.");
+        }
+        long subtotal = 0;
+        for (Double item : entry.getItems()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Item amounts are required.");
+            }
+            subtotal = Math.addExact(subtotal, Money.of(BigDecimal.valueOf(item), currency).getMinor());
+        }
+        return subtotal;
+    }
+
+    @Override
+    public void split(long total, long[] inputs, long[] out, long[] scratch) {
+        long itemsTotal = 0;
+        for (long input : inputs) {
+            itemsTotal = Math.addExact(itemsTotal, input);
+        }
+        if (itemsTotal == 0) {
+            throw new IllegalArgumentException("At least one item is required for an itemized split.");
+        }
+        if (itemsTotal > total) {
+            throw new IllegalArgumentException("Itemized amounts cannot exceed the total amount.");
+        }
+        Money.allocateMinor(total - itemsTotal, inputs, out, scratch);
+        for (int i = 0; i < inputs.length; i++) {
+            out[i] += inputs[i];
+        }
+    }
+}
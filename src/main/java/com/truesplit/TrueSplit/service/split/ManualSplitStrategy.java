@@ -0,0 +1,39 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import com.truesplit.TrueSplit.model.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+public class ManualSplitStrategy implements SplitStrategy {
+
+    @Override
+    public String type() {
+        return "MANUAL";
+    }
+
+    @Override
+    public long inputOf(ManualSplitEntry entry, String currency) {
+        if (entry == null) {
+            return 0;
+        }
+        if (entry.getAmount() == null) {
+            throw new IllegalArgumentException("Each manual split entry needs an amount.");
+        }
+        return Money.of(BigDecimal.valueOf(entry.getAmount()), currency).getMinor();
+    }
+
+    @Override
+    public void split(long total, long[] inputs, long[] out, long[] scratch) {
+        long sum = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            out[i] = inputs[i];
+            sum = Math.addExact(sum, inputs[i]);
+        }
+        if (sum != total) {
+            throw new IllegalArgumentException("Manual split amounts must add up to the total amount.");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import com.truesplit.TrueSplit.model.Money;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PercentageSplitStrategy implements SplitStrategy {
+
+    // Percentages are taken to two decimals, so 100% is 10 000 hundredths
+    static final long WHOLE = 10_000;
+
+    @Override
+    public String type() {
+        return "PERCENTAGE";
+    }
+
+    @Override
+    public long inputOf(ManualSplitEntry entry, String currency) {
+        if (entry == null) {
+            return 0;
+        }
+        if (entry.getPercentage() == null) {
+            throw new IllegalArgumentException("Each percentage split entry needs a percentage.");
+        }
+        return Math.round(entry.getPercentage() * 100);
+    }
+
+    @Override
+    public void split(long total, long[] inputs, long[] out, long[] scratch) {
+        long sum = 0;
+        for (long input : inputs) {
+            sum = Math.addExact(sum, input);
+        }
+        if (sum != WHOLE) {
+            throw new IllegalArgumentException("Split percentages must add up to 100.");
+        }
+        Money.allocateMinor(total, inputs, out, scratch);
+    }
+}
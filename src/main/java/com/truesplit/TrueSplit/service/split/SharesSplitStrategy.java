@@ -0,0 +1,37 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import com.truesplit.TrueSplit.model.Money;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SharesSplitStrategy implements SplitStrategy {
+
+    @Override
+    public String type() {
+        return "SHARES";
+    }
+
+    @Override
+    public long inputOf(ManualSplitEntry entry, String currency) {
+        if (entry == null) {
+            return 0;
+        }
+        if (entry.getShares() == null) {
+            throw new IllegalArgumentException("Each shares split entry needs a number of shares.");
+        }
+        return entry.getShares();
+    }
+
+    @Override
+    public void split(long total, long[] inputs, long[] out, long[] scratch) {
+        long sum = 0;
+        for (long input : inputs) {
+            sum = Math.addExact(sum, input);
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one participant needs a share.");
+        }
+        Money.allocateMinor(total, inputs, out, scratch);
+    }
+}
@@ -0,0 +1,83 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the {@link SplitStrategy} for a split type and turns request entries into
+ * per-participant shares, in participant order.
+ */
+@Component
+public class SplitCalculator {
+
+    private final Map<String, SplitStrategy> strategies = new HashMap<>();
+
+    public SplitCalculator(List<SplitStrategy> strategies) {
+        for (SplitStrategy strategy : strategies) {
+            if (this.strategies.put(strategy.type(), strategy) != null) {
+                throw new IllegalStateException("Duplicate split strategy for " + strategy.type());
+            }
+        }
+    }
+
+    public SplitStrategy strategy(String splitType) {
+        SplitStrategy strategy = strategies.get(splitType);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported split type: " + splitType);
+        }
+        return strategy;
+    }
+
+    public long[] split(String splitType, long total, String currency,
+                        List<String> participants, List<ManualSplitEntry> entries) {
+        SplitStrategy strategy = strategy(splitType);
+        int n = participants.size();
+        long[] inputs = new long[n];
+        long[] out = new long[n];
+
+        if (strategy.requiresEntries()) {
+            if (entries == null || entries.isEmpty()) {
+                throw new IllegalArgumentException("Please add split details for a " + splitType.toLowerCase() + " split.");
+            }
+            Map<String, ManualSplitEntry> byUser = new HashMap<>();
+            for (ManualSplitEntry entry : entries) {
+                if (!participants.contains(entry.getUserId())) {
+                    throw new IllegalArgumentException("Split entries can only name participants of the expense.");
+                }
+                if (byUser.put(entry.getUserId(), entry) != null) {
+                    throw new IllegalArgumentException("Each participant can only appear once in the split.");
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                inputs[i] = inputOf(strategy, byUser.get(participants.get(i)), currency);
+                if (inputs[i] < 0) {
+                    throw new IllegalArgumentException("Split values cannot be negative.");
+                }
+            }
+        }
+
+        try {
+            strategy.split(total, inputs, out, new long[n]);
+        } catch (ArithmeticException ex) {
+            throw outOfRange();
+        }
+        return out;
+    }
+
+    // Request values are user input, so a sum that overflows a long is a bad request rather than a 500
+    private static long inputOf(SplitStrategy strategy, ManualSplitEntry entry, String currency) {
+        try {
+            return strategy.inputOf(entry, currency);
+        } catch (ArithmeticException | NumberFormatException ex) {
+            throw outOfRange();
+        }
+    }
+
+    private static IllegalArgumentException outOfRange() {
+        return new IllegalArgumentException("Split values are out of range.");
+    }
+}
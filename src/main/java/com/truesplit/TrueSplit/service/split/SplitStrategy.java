@@ -0,0 +1,33 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+
+/**
+ * One way of dividing an expense total among its participants. Everything is in minor units and
+ * works on caller-owned arrays, so recomputing splits for many expenses in a loop allocates nothing
+ * per expense beyond what the caller chooses to.
+ */
+public interface SplitStrategy {
+
+    // Value of CreateExpenseRequest.splitType / Expense.splitType this strategy handles
+    String type();
+
+    // Whether the request must carry split entries for this strategy
+    default boolean requiresEntries() {
+        return true;
+    }
+
+    /**
+     * The per-participant figure this strategy works from, read from the request entry: an amount or
+     * item subtotal in minor units, a percentage in hundredths, or a share count.
+     * {@code entry} is null for participants the request left out.
+     */
+    long inputOf(ManualSplitEntry entry, String currency);
+
+    /**
+     * Writes participant {@code i}'s share of {@code total} to {@code out[i]}. {@code inputs},
+     * {@code out} and {@code scratch} are all as long as the participant list, and the shares always
+     * add up to {@code total} exactly.
+     */
+    void split(long total, long[] inputs, long[] out, long[] scratch);
+}
@@ -0,0 +1,65 @@
+package com.truesplit.TrueSplit.model;
+
+import org.bson.types.Decimal128;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Equal split of one total across 50 participants. {@code bigDecimal} is the computation
+ * {@code createExpense} did before {@link Money}: divide to two places, give the rest to the last
+ * participant and wrap every share in a {@link Decimal128}. {@code splitMinor} fills a reused array;
+ * {@code split} is the allocating {@link Money#split} API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneySplitBenchmark {
+
+    @Param({"50"})
+    public int participants;
+
+    private final double totalAmount = 1234.57;
+    private final Money total = Money.of(BigDecimal.valueOf(totalAmount), "USD");
+    private long[] out;
+
+    @Setup
+    public void allocate() {
+        out = new long[participants];
+    }
+
+    @Benchmark
+    public Decimal128[] bigDecimal() {
+        BigDecimal amount = BigDecimal.valueOf(totalAmount);
+        BigDecimal share = amount.divide(BigDecimal.valueOf(participants), 2, RoundingMode.HALF_UP);
+        BigDecimal last = amount.subtract(share.multiply(BigDecimal.valueOf(participants - 1)));
+        Decimal128[] shares = new Decimal128[participants];
+        for (int i = 0; i < participants; i++) {
+            shares[i] = new Decimal128(i == participants - 1 ? last : share);
+        }
+        return shares;
+    }
+
+    @Benchmark
+    public long[] splitMinor() {
+        Money.splitMinor(total.getMinor(), participants, out);
+        return out;
+    }
+
+    @Benchmark
+    public Money[] split() {
+        return total.split(participants);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoneySplitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.truesplit.TrueSplit.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void usesTheCurrencyMinorUnit() {
+        assertEquals(1050, Money.of(new BigDecimal("10.5"), "USD").getMinor());
+        assertEquals(1050, Money.of(new BigDecimal("1050"), "JPY").getMinor());
+        assertEquals("10.50", Money.ofMinor(1050, "USD").toPlainString());
+        assertEquals("1050", Money.ofMinor(1050, "JPY").toPlainString());
+    }
+
+    @Test
+    void equalSplitHandsOutTheRemainderOneUnitAtATime() {
+        Money[] parts = Money.of(new BigDecimal("100.00"), "USD").split(3);
+
+        assertEquals(3334, parts[0].getMinor());
+        assertEquals(3333, parts[1].getMinor());
+        assertEquals(3333, parts[2].getMinor());
+    }
+
+    @Test
+    void allocationAlwaysAddsUpToTheTotal() {
+        long[] weights = {1, 1, 1, 7, 0, 3};
+        for (long total = 0; total < 5_000; total += 7) {
+            Money[] parts = Money.ofMinor(total, "USD").allocate(weights);
+            long sum = 0;
+            for (Money part : parts) {
+                assertTrue(part.getMinor() >= 0);
+                sum += part.getMinor();
+            }
+            assertEquals(total, sum);
+            assertEquals(0, parts[4].getMinor());
+        }
+    }
+
+    @Test
+    void allocationWidensProductsThatOverflowALong() {
+        long total = Long.MAX_VALUE - 1;
+        long[] out = new long[2];
+        Money.allocateMinor(total, new long[]{Long.MAX_VALUE / 2, Long.MAX_VALUE / 2}, out);
+
+        assertEquals(total / 2, out[0]);
+        assertEquals(total / 2, out[1]);
+        assertThrows(IllegalArgumentException.class,
+                () -> Money.allocateMinor(10, new long[]{Long.MAX_VALUE, 1}, new long[2]));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1e30"), "USD"));
+    }
+
+    @Test
+    void refusesToMixCurrencies() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Money.ofMinor(100, "USD").plus(Money.ofMinor(100, "INR")));
+    }
+
+    @Test
+    void serialisesAtTheCurrencyScale() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Amounts used to echo the stored Decimal128 ("10.5"); they now always carry the currency's digits
+        assertEquals("\"10.50\"", mapper.writeValueAsString(Money.of(new BigDecimal("10.5"), "USD")));
+        assertEquals("\"1051\"", mapper.writeValueAsString(Money.of(new BigDecimal("1050.50"), "JPY")));
+    }
+
+    @Test
+    void readsBackStringsNumbersAndObjects() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals(Money.ofMinor(1050, "USD"), mapper.readValue("\"10.50\"", Money.class));
+        assertEquals(Money.ofMinor(1050, "USD"), mapper.readValue("10.5", Money.class));
+        assertEquals(Money.ofMinor(1050, "JPY"),
+                mapper.readValue("{\"amount\":\"1050\",\"currency\":\"JPY\"}", Money.class));
+        Money original = Money.ofMinor(123456, "INR");
+        assertEquals(original.getMinor(),
+                mapper.readValue(mapper.writeValueAsString(original), Money.class).getMinor());
+        assertThrows(Exception.class, () -> mapper.readValue("\"ten\"", Money.class));
+    }
+}
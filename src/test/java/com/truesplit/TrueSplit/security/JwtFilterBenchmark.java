@@ -0,0 +1,87 @@
+package com.truesplit.TrueSplit.security;
+
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of the old and new {@link JwtAuthenticationFilter} paths.
+ * {@code legacy} is what the filter did before: build a parser and verify the token in
+ * {@code validateToken}, again in {@code getUsername}, then {@code existsByEmail} and
+ * {@code loadUserByUsername}. {@code current} is one {@link JwtUtil#parse} plus a warm
+ * {@link PrincipalCache} hit. The user lookups are served from memory here, so the two Mongo round
+ * trips the legacy path also paid are not part of its score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final String EMAIL = "bench@truesplit.local";
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private CustomUserDetailsService userDetailsService;
+    private UserRepository userRepository;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId("64b000000000000000000001");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user.setRoles(List.of("ROLE_USER"));
+        userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEmail" -> Optional.of(user);
+                    case "existsByEmail" -> Boolean.TRUE;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        jwtUtil = new JwtUtil(SECRET, 3_600_000);
+        principalCache = new PrincipalCache(userRepository, 10_000, 60);
+        userDetailsService = new CustomUserDetailsService(userRepository);
+        token = jwtUtil.generateToken(EMAIL, user.getId(), user.getRoles());
+        principalCache.resolve(EMAIL);
+    }
+
+    @Benchmark
+    public UserDetails legacy() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        String username = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        if (!userRepository.existsByEmail(username)) {
+            throw new IllegalStateException("deleted");
+        }
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    @Benchmark
+    public AuthenticatedUser current() {
+        JwtPrincipal claims = jwtUtil.parse(token).orElseThrow();
+        AuthenticatedUser user = principalCache.resolve(claims.getEmail()).orElseThrow();
+        user.getAuthorities();
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
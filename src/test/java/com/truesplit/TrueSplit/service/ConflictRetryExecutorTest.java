@@ -0,0 +1,99 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.TransientMongoDbException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryExecutorTest {
+
+    private final ConflictRetryExecutor executor = new ConflictRetryExecutor(3, 0);
+
+    @Test
+    void retriesUntilTheOperationStopsConflicting() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.call("accept", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        Map<?, ?> stats = (Map<?, ?>) executor.stats().get("accept");
+        assertEquals(1L, stats.get("calls"));
+        assertEquals(2L, stats.get("conflicts"));
+        assertEquals(0L, stats.get("exhausted"));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConflictException.class, () -> executor.run("settle", () -> {
+            attempts.incrementAndGet();
+            throw new ConflictException("lost the race");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1L, ((Map<?, ?>) executor.stats().get("settle")).get("exhausted"));
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> executor.run("reject", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("not a participant");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void retriesTransactionsAbortedByAWriteConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.run("create", () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new TransientMongoDbException("WriteConflict", null);
+            }
+        });
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void runsOnceInsideATransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, () -> executor.run("accept", () -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockingFailureException("stale version");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void backoffStaysWithinTheJitterWindow() {
+        ConflictRetryExecutor withBackoff = new ConflictRetryExecutor(5, 10);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(withBackoff.backoff(1) <= 10);
+            assertTrue(withBackoff.backoff(3) <= 40);
+        }
+    }
+}
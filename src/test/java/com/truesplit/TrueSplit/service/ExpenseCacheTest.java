@@ -0,0 +1,56 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.cache.LocalDistributedCache;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseCacheTest {
+
+    private final ExpenseCache cache = new ExpenseCache(new LocalDistributedCache(false, 100, 60_000), 100, 60);
+
+    @Test
+    void servesRepeatReadsAndMapsTheSlugToTheId() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("e1", () -> response("e1", "dinner", loads));
+        ExpenseResponse again = cache.get("e1", () -> response("e1", "dinner", loads));
+
+        assertEquals(1, loads.get());
+        assertEquals("e1", again.getId());
+        assertEquals("e1", cache.idForSlug("dinner"));
+    }
+
+    @Test
+    void invalidationForcesAReload() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("e1", () -> response("e1", "dinner", loads));
+
+        cache.invalidate("e1");
+        cache.get("e1", () -> response("e1", "dinner", loads));
+
+        assertEquals(2, loads.get());
+        assertEquals("e1", cache.idForSlug("dinner"));
+    }
+
+    @Test
+    void aLoadRacingAnInvalidationIsNotStored() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("e1", () -> {
+            cache.invalidate("e1");
+            return response("e1", "dinner", loads);
+        });
+        cache.get("e1", () -> response("e1", "dinner", loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static ExpenseResponse response(String id, String slug, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return ExpenseResponse.builder().id(id).titleSlug(slug).build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.Repository.ParticipantStatusRepository;
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.ParticipantStatus;
+import com.truesplit.TrueSplit.model.User;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class ExpenseResponseAssemblerTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20, 100})
+    void usesConstantQueryCountRegardlessOfPageSize(int pageSize) {
+        ParticipantStatusRepository statusRepository = mock(ParticipantStatusRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+
+        List<Expense> expenses = new ArrayList<>();
+        List<ParticipantStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Expense expense = new Expense();
+            expense.setId("expense-" + i);
+            expense.setTitle("Expense " + i);
+            expense.setTotalAmount(new Decimal128(BigDecimal.TEN));
+            expense.setPaidBy("user-a");
+            expense.setCreatedBy("user-a");
+            expense.setParticipants(new ArrayList<>(List.of("user-a", "user-b")));
+            expenses.add(expense);
+
+            ParticipantStatus status = new ParticipantStatus();
+            status.setExpenseId(expense.getId());
+            status.setUserId("user-b");
+            status.setStatus("PENDING");
+            statuses.add(status);
+        }
+
+        User userA = new User();
+        userA.setId("user-a");
+        userA.setName("A");
+        User userB = new User();
+        userB.setId("user-b");
+        userB.setName("B");
+
+        when(statusRepository.findByExpenseIdIn(anyCollection())).thenReturn(statuses);
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(userA, userB));
+
+        // Legacy mode: nothing is embedded yet, so statuses come from one $in query
+        ParticipantStateStore participantState =
+                new ParticipantStateStore(mock(MongoTemplate.class), statusRepository, "legacy");
+        ExpenseResponseAssembler assembler = new ExpenseResponseAssembler(participantState, userRepository);
+        List<ExpenseResponse> responses = assembler.toResponses(expenses);
+
+        assertEquals(pageSize, responses.size());
+        assertEquals(2, responses.get(pageSize - 1).getParticipants().size());
+        assertEquals(1, responses.get(pageSize - 1).getParticipantSettlement().size());
+
+        verify(statusRepository, times(1)).findByExpenseIdIn(anyCollection());
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verifyNoMoreInteractions(statusRepository, userRepository);
+    }
+}
@@ -0,0 +1,126 @@
+package com.truesplit.TrueSplit.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.truesplit.TrueSplit.model.Expense;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over 1M expenses, reported as a sample distribution so the p99 is in the output.
+ * Each operation is the count plus first page that {@code getUserExpenses} runs for a search.
+ * Needs a MongoDB at {@code -Dbench.mongo.uri} (default {@code mongodb://localhost:27017}); the
+ * {@code truesplit_bench} database is seeded once with generated expenses and the {@link Expense}
+ * indexes, and reused on later runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ExpenseSearchBenchmark {
+
+    private static final int EXPENSES = 1_000_000;
+    private static final int USERS = 10_000;
+    private static final int SEED_BATCH = 10_000;
+    private static final String[] TITLE_WORDS = {"dinner", "lunch", "pizza", "groceries", "rent", "taxi",
+            "flight", "hotel", "coffee", "movie", "concert", "fuel", "museum", "brunch", "drinks", "utilities"};
+    private static final String[] NAMES = {"alice", "bob", "carol", "dave", "erin", "frank", "grace", "heidi",
+            "ivan", "judy", "mallory", "niaj", "olivia", "peggy", "rupert", "sybil", "trent", "victor"};
+
+    @Param({"dinner", "pizza lunch", "mallory"})
+    public String search;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private final String userId = userId(42);
+
+    @Setup
+    public void seed() {
+        client = MongoClients.create(System.getProperty("bench.mongo.uri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(client, "truesplit_bench");
+        if (mongoTemplate.getCollection("expenses").estimatedDocumentCount() < EXPENSES) {
+            mongoTemplate.dropCollection(Expense.class);
+            insertExpenses(mongoTemplate.getCollection("expenses"));
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(Expense.class);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Expense.class)
+                .forEach(indexOps::createIndex);
+    }
+
+    @TearDown
+    public void close() {
+        client.close();
+    }
+
+    @Benchmark
+    public List<Expense> searchFirstPage() {
+        Query query = ExpenseService.buildListQuery(userId, null, search);
+        ((TextQuery) query).sortByScore();
+        query.with(PageRequest.of(0, 20));
+        mongoTemplate.count(query, Expense.class);
+        return mongoTemplate.find(query, Expense.class);
+    }
+
+    private static void insertExpenses(MongoCollection<Document> expenses) {
+        Random random = new Random(42);
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        List<Document> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < EXPENSES; i++) {
+            int size = 2 + random.nextInt(5);
+            List<String> participants = new ArrayList<>(size);
+            List<String> names = new ArrayList<>(size);
+            for (int p = 0; p < size; p++) {
+                int user = random.nextInt(USERS);
+                participants.add(userId(user));
+                names.add(NAMES[user % NAMES.length] + " " + user);
+            }
+            String title = TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " "
+                    + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+            batch.add(new Document("title", title)
+                    .append("titleSlug", "bench-" + i)
+                    .append("description", "Split for " + title + " with friends")
+                    .append("createdBy", participants.get(0))
+                    .append("paidBy", participants.get(0))
+                    .append("participants", participants)
+                    .append("participantNames", names)
+                    .append("status", random.nextInt(4) == 0 ? "SETTLED" : "ACTIVE")
+                    .append("currency", "USD")
+                    .append("expenseDateTime", new Date(start + random.nextInt(700) * 86_400_000L)));
+            if (batch.size() == SEED_BATCH) {
+                expenses.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            expenses.insertMany(batch);
+        }
+    }
+
+    private static String userId(int user) {
+        return String.format("bench-user-%05d", user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExpenseSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,202 @@
+package com.truesplit.TrueSplit.service;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.InsertOneResult;
+import com.truesplit.TrueSplit.Repository.ExpenseRepository;
+import com.truesplit.TrueSplit.Repository.GroupMemberRepository;
+import com.truesplit.TrueSplit.Repository.ParticipantStatusRepository;
+import com.truesplit.TrueSplit.Repository.UserBalanceRepository;
+import com.truesplit.TrueSplit.Repository.UserRepository;
+import com.truesplit.TrueSplit.cache.LocalDistributedCache;
+import com.truesplit.TrueSplit.dto.request.CreateExpenseRequest;
+import com.truesplit.TrueSplit.dto.request.ImageDto;
+import com.truesplit.TrueSplit.dto.response.ExpenseResponse;
+import com.truesplit.TrueSplit.model.User;
+import com.truesplit.TrueSplit.service.outbox.OutboxPublisher;
+import com.truesplit.TrueSplit.service.split.EqualSplitStrategy;
+import com.truesplit.TrueSplit.service.split.SplitCalculator;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExpenseServiceCreateTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 10, 50})
+    void usesConstantRoundTripsRegardlessOfParticipantCount(int participantCount) {
+        RecordingMongo mongo = new RecordingMongo();
+        MongoTemplate mongoTemplate = new MongoTemplate(mongo.factory());
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+        UserRepository userRepository = repositories.getRepository(UserRepository.class);
+
+        List<String> participantIds = new ArrayList<>();
+        for (int i = 0; i < participantCount; i++) {
+            User user = new User();
+            user.setId("user-" + i);
+            user.setName("User " + i);
+            participantIds.add(user.getId());
+            Document document = new Document();
+            mongoTemplate.getConverter().write(user, document);
+            mongo.seed("users", document);
+        }
+
+        // Legacy mode, so participant state goes to its own collection in one insertAll
+        ParticipantStateStore participantState = new ParticipantStateStore(mongoTemplate,
+                repositories.getRepository(ParticipantStatusRepository.class), "legacy");
+        ExpenseService service = new ExpenseService(repositories.getRepository(ExpenseRepository.class),
+                userRepository, participantState, new ConflictRetryExecutor(3, 0),
+                repositories.getRepository(GroupMemberRepository.class), new SlugGeneratorService(mongoTemplate),
+                mongoTemplate, new ExpenseResponseAssembler(participantState, userRepository),
+                new BalanceLedgerService(repositories.getRepository(UserBalanceRepository.class), mongoTemplate),
+                new SplitCalculator(List.of(new EqualSplitStrategy())),
+                new ExpenseCache(new LocalDistributedCache(false, 100, 60_000), 100, 60),
+                new ExpenseIdentifierRouter(mongoTemplate, 1_000, 0.01, 1_000), new OutboxPublisher(mongoTemplate),
+                TransactionOperations.withoutTransaction());
+
+        ImageDto image = new ImageDto();
+        image.setUrl("https://img.example/receipt.png");
+        image.setOriginalName("receipt.png");
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setTitle("Dinner");
+        request.setTotalAmount(100.0);
+        request.setCurrency("USD");
+        request.setSplitType("EQUAL");
+        request.setPaidBy("user-0");
+        request.setParticipants(participantIds);
+        request.setExpenseDate("2025-01-15");
+        request.setExpenseTime("19:30");
+        request.setTimezone("UTC");
+        request.setImages(List.of(image));
+
+        ExpenseResponse response = service.createExpense(request, "user-0");
+
+        assertEquals(participantCount, response.getParticipants().size());
+        assertEquals(List.of(
+                "users.find",
+                "slug_counters.findOneAndUpdate",
+                "expenses.insertOne",
+                "participant_statuses.insertMany",
+                "user_balances.bulkWrite",
+                "outbox.insertOne"), mongo.commands);
+        assertEquals(Integer.valueOf(participantCount), mongo.written.get("participant_statuses"));
+    }
+
+    // A driver-level database: every collection call is one round trip and is recorded as collection.method
+    private static final class RecordingMongo {
+
+        private final List<String> commands = new ArrayList<>();
+        private final Map<String, Integer> written = new HashMap<>();
+        private final Map<String, List<Document>> documents = new HashMap<>();
+
+        void seed(String collection, Document document) {
+            documents.computeIfAbsent(collection, k -> new ArrayList<>()).add(document);
+        }
+
+        MongoDatabaseFactory factory() {
+            MongoDatabase database = proxy(MongoDatabase.class, (method, args) -> switch (method) {
+                case "getName" -> "truesplit";
+                case "getCollection" -> collection((String) args[0]);
+                default -> throw new UnsupportedOperationException("database." + method);
+            });
+            return proxy(MongoDatabaseFactory.class, (method, args) -> switch (method) {
+                case "getMongoDatabase" -> database;
+                case "getExceptionTranslator" -> new MongoExceptionTranslator();
+                case "getCodecRegistry" -> MongoClientSettings.getDefaultCodecRegistry();
+                default -> throw new UnsupportedOperationException("factory." + method);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private MongoCollection<Document> collection(String name) {
+            return proxy(MongoCollection.class, (method, args) -> {
+                if (method.startsWith("with")) {
+                    return collection(name);
+                }
+                switch (method) {
+                    case "getNamespace":
+                        return new MongoNamespace("truesplit", name);
+                    case "getDocumentClass":
+                        return Document.class;
+                    case "getCodecRegistry":
+                        return MongoClientSettings.getDefaultCodecRegistry();
+                    default:
+                        break;
+                }
+                commands.add(name + "." + method);
+                switch (method) {
+                    case "find":
+                        return findIterable(documents.getOrDefault(name, List.of()));
+                    case "insertOne":
+                        ((Document) args[0]).putIfAbsent("_id", new ObjectId());
+                        written.merge(name, 1, Integer::sum);
+                        return InsertOneResult.acknowledged(null);
+                    case "insertMany":
+                        List<Document> inserted = (List<Document>) args[0];
+                        inserted.forEach(document -> document.putIfAbsent("_id", new ObjectId()));
+                        written.merge(name, inserted.size(), Integer::sum);
+                        return InsertManyResult.acknowledged(Map.of());
+                    case "bulkWrite":
+                        written.merge(name, ((List<?>) args[0]).size(), Integer::sum);
+                        return BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+                    case "findOneAndUpdate":
+                        // A counter that already exists
+                        return new Document("_id", ((Document) args[0]).get("_id")).append("seq", 1L);
+                    default:
+                        throw new UnsupportedOperationException(name + "." + method);
+                }
+            });
+        }
+
+        private FindIterable<Document> findIterable(List<Document> results) {
+            return proxy(FindIterable.class, (method, args) -> switch (method) {
+                case "iterator", "cursor" -> cursor(results.iterator());
+                case "first" -> results.isEmpty() ? null : results.get(0);
+                default -> method.equals("into") ? null : findIterable(results);
+            });
+        }
+
+        private MongoCursor<Document> cursor(Iterator<Document> results) {
+            return proxy(MongoCursor.class, (method, args) -> switch (method) {
+                case "hasNext" -> results.hasNext();
+                case "available" -> results.hasNext() ? 1 : 0;
+                case "next" -> results.next();
+                case "tryNext" -> results.hasNext() ? results.next() : null;
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException("cursor." + method);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<?> type, Handler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                    switch (method.getName()) {
+                        case "toString" -> type.getSimpleName();
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> handler.handle(method.getName(), args);
+                    });
+        }
+
+        private interface Handler {
+            Object handle(String method, Object[] args) throws Exception;
+        }
+    }
+}
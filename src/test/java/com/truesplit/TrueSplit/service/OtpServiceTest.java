@@ -0,0 +1,32 @@
+package com.truesplit.TrueSplit.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtpServiceTest {
+
+    private final SecretKeySpec key = new SecretKeySpec("server-key".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+    @Test
+    void matchesOnlyTheIssuedCode() {
+        String stored = OtpService.digest(key, "a@example.com", "012345");
+
+        assertNotEquals("012345", stored);
+        assertTrue(OtpService.matches(key, "a@example.com", "012345", stored));
+        assertFalse(OtpService.matches(key, "a@example.com", "012346", stored));
+    }
+
+    @Test
+    void digestIsBoundToTheEmailAndKey() {
+        String stored = OtpService.digest(key, "a@example.com", "012345");
+        SecretKeySpec otherKey = new SecretKeySpec("other-key".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        assertFalse(OtpService.matches(key, "b@example.com", "012345", stored));
+        assertFalse(OtpService.matches(otherKey, "a@example.com", "012345", stored));
+        assertFalse(OtpService.matches(key, "a@example.com", "012345", null));
+    }
+}
@@ -0,0 +1,87 @@
+package com.truesplit.TrueSplit.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settlement planning for groups of 5 to 500 members with 50k outstanding expense shares.
+ * {@code netAndPlan} covers what the endpoint does after the Mongo reads: netting every share into
+ * {@link SettlementPlanService.NetBalances} and planning the transfers. {@code plan} is the planner alone.
+ * Run {@link #main} from the test classpath, e.g. after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementPlannerBenchmark {
+
+    private static final int EXPENSES = 50_000;
+
+    @Param({"5", "12", "50", "500"})
+    public int groupSize;
+
+    private final SettlementPlanner planner = new SettlementPlanner();
+    private String[] userIds;
+    private int[] payers;
+    private int[][] debtors;
+    private long[][] shares;
+    private long[] net;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        userIds = new String[groupSize];
+        for (int i = 0; i < groupSize; i++) {
+            userIds[i] = "user-" + i;
+        }
+        payers = new int[EXPENSES];
+        debtors = new int[EXPENSES][];
+        shares = new long[EXPENSES][];
+        for (int e = 0; e < EXPENSES; e++) {
+            payers[e] = random.nextInt(groupSize);
+            int count = 1 + random.nextInt(Math.min(groupSize, 6));
+            debtors[e] = new int[count];
+            shares[e] = new long[count];
+            for (int d = 0; d < count; d++) {
+                debtors[e][d] = random.nextInt(groupSize);
+                shares[e][d] = 1 + random.nextInt(100_000);
+            }
+        }
+        net = netBalances().getNet();
+    }
+
+    @Benchmark
+    public List<SettlementPlanner.Transfer> plan() {
+        return planner.plan(net.clone());
+    }
+
+    @Benchmark
+    public List<SettlementPlanner.Transfer> netAndPlan() {
+        return planner.plan(netBalances().getNet());
+    }
+
+    private SettlementPlanService.NetBalances netBalances() {
+        SettlementPlanService.NetBalances balances = new SettlementPlanService.NetBalances();
+        for (int e = 0; e < EXPENSES; e++) {
+            for (int d = 0; d < debtors[e].length; d++) {
+                if (debtors[e][d] != payers[e]) {
+                    balances.add(userIds[payers[e]], shares[e][d]);
+                    balances.add(userIds[debtors[e][d]], -shares[e][d]);
+                }
+            }
+        }
+        return balances;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SettlementPlannerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.truesplit.TrueSplit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementPlannerTest {
+
+    private final SettlementPlanner planner = new SettlementPlanner();
+
+    @Test
+    void exactSolverBeatsGreedyWhenZeroSumSubgroupsExist() {
+        // {+4, -4} and {+3, +2, -5} settle independently: 1 + 2 transfers
+        long[] net = {400, 300, 200, -500, -400};
+
+        List<SettlementPlanner.Transfer> transfers = planner.plan(net);
+
+        assertEquals(3, transfers.size());
+        assertSettles(net, transfers);
+    }
+
+    @Test
+    void returnsNoTransfersWhenEveryoneIsEven() {
+        assertTrue(planner.plan(new long[]{0, 0, 0}).isEmpty());
+    }
+
+    @Test
+    void rejectsUnbalancedInput() {
+        assertThrows(IllegalStateException.class, () -> planner.plan(new long[]{100, -99}));
+    }
+
+    @Test
+    void randomGroupsAlwaysSettleWithAtMostMembersMinusOneTransfers() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            int size = 2 + random.nextInt(run % 2 == 0 ? 12 : 500);
+            long[] net = new long[size];
+            long total = 0;
+            for (int i = 0; i < size - 1; i++) {
+                net[i] = random.nextInt(200_001) - 100_000;
+                total += net[i];
+            }
+            net[size - 1] = -total;
+
+            List<SettlementPlanner.Transfer> transfers = planner.plan(net);
+
+            assertTrue(transfers.size() <= Math.max(0, size - 1));
+            assertSettles(net, transfers);
+        }
+    }
+
+    private void assertSettles(long[] net, List<SettlementPlanner.Transfer> transfers) {
+        long[] remaining = net.clone();
+        for (SettlementPlanner.Transfer transfer : transfers) {
+            assertTrue(transfer.getAmount() > 0);
+            remaining[transfer.getFrom()] += transfer.getAmount();
+            remaining[transfer.getTo()] -= transfer.getAmount();
+        }
+        for (long balance : remaining) {
+            assertEquals(0, balance);
+        }
+    }
+}
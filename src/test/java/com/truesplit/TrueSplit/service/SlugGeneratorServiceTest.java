@@ -0,0 +1,142 @@
+package com.truesplit.TrueSplit.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.SlugCounter;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlugGeneratorServiceTest {
+
+    private static final int CREATES = 1_000;
+
+    private final CounterTemplate mongoTemplate = new CounterTemplate();
+    private final SlugGeneratorService slugGenerator = new SlugGeneratorService(mongoTemplate);
+
+    @Test
+    void parallelCreatesOfOneTitleNeverShareASlug() throws Exception {
+        mongoTemplate.slugs.addAll(List.of("dinner", "dinner-1", "dinner-7", "dinner-party"));
+        AtomicInteger collisions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CREATES; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                String slug = slugGenerator.generateUniqueSlug("Dinner");
+                // What the unique titleSlug index does to the expense insert
+                while (!mongoTemplate.slugs.add(slug)) {
+                    collisions.incrementAndGet();
+                    slug = slugGenerator.generateSlugAfterCollision("Dinner");
+                }
+                return slug;
+            }));
+        }
+        start.countDown();
+        Set<String> allocated = new HashSet<>();
+        for (Future<String> result : results) {
+            allocated.add(result.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(CREATES, allocated.size());
+        assertEquals(0, collisions.get(), "the seeded counter starts past every existing slug");
+        assertFalse(allocated.contains("dinner-7"));
+        assertEquals(CREATES + 8, mongoTemplate.counters.get("dinner").get());
+    }
+
+    @Test
+    void collisionMovesALaggingCounterPastExistingSlugs() {
+        mongoTemplate.counters.put("dinner", new AtomicLong(2));
+        mongoTemplate.slugs.addAll(List.of("dinner", "dinner-1", "dinner-2", "dinner-5"));
+
+        assertEquals("dinner-2", slugGenerator.generateUniqueSlug("Dinner"));
+        assertEquals("dinner-6", slugGenerator.generateSlugAfterCollision("Dinner"));
+    }
+
+    @Test
+    void onlyTitleSlugDuplicatesCountAsSlugCollisions() {
+        assertTrue(SlugGeneratorService.isSlugCollision(new DuplicateKeyException(
+                "E11000 duplicate key error collection: trusplit.expenses index: titleSlug dup key: { titleSlug: \"dinner\" }")));
+        assertFalse(SlugGeneratorService.isSlugCollision(new DuplicateKeyException(
+                "E11000 duplicate key error collection: trusplit.expenses index: _id_ dup key: { _id: ObjectId('64b0') }")));
+    }
+
+    // Counters and expense slugs held in memory with the same atomicity Mongo gives each operation
+    private static final class CounterTemplate extends MongoTemplate {
+
+        private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        private final Set<String> slugs = ConcurrentHashMap.newKeySet();
+
+        private CounterTemplate() {
+            super((MongoDatabaseFactory) Proxy.newProxyInstance(MongoDatabaseFactory.class.getClassLoader(),
+                    new Class<?>[]{MongoDatabaseFactory.class}, (proxy, method, args) ->
+                            "getExceptionTranslator".equals(method.getName()) ? new MongoExceptionTranslator() : null));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+            AtomicLong seq = counters.get(query.getQueryObject().getString("_id"));
+            if (seq == null) {
+                return null;
+            }
+            long by = ((Number) ((Update) update).getUpdateObject().get("$inc", Document.class).get("seq")).longValue();
+            return (T) counter(query.getQueryObject().getString("_id"), seq.addAndGet(by));
+        }
+
+        @Override
+        public <T> T insert(T objectToSave) {
+            SlugCounter counter = (SlugCounter) objectToSave;
+            if (counters.putIfAbsent(counter.getId(), new AtomicLong(counter.getSeq())) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error collection: slug_counters index: _id_");
+            }
+            return objectToSave;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> find(Query query, Class<T> entityClass) {
+            List<T> found = new ArrayList<>();
+            for (String slug : slugs) {
+                Expense expense = new Expense();
+                expense.setTitleSlug(slug);
+                found.add((T) expense);
+            }
+            return found;
+        }
+
+        @Override
+        public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+            AtomicLong seq = counters.get(query.getQueryObject().getString("_id"));
+            long floor = ((Number) ((Update) update).getUpdateObject().get("$max", Document.class).get("seq")).longValue();
+            if (seq != null) {
+                seq.accumulateAndGet(floor, Math::max);
+            }
+            return UpdateResult.acknowledged(seq != null ? 1 : 0, 1L, null);
+        }
+
+        private static SlugCounter counter(String id, long seq) {
+            SlugCounter counter = new SlugCounter();
+            counter.setId(id);
+            counter.setSeq(seq);
+            return counter;
+        }
+    }
+}
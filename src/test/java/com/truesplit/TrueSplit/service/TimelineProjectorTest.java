@@ -0,0 +1,47 @@
+package com.truesplit.TrueSplit.service;
+
+import com.truesplit.TrueSplit.model.Expense;
+import com.truesplit.TrueSplit.model.Money;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelineProjectorTest {
+
+    @Test
+    void payerSeesWhatOthersStillOwe() {
+        Expense expense = expense();
+
+        assertEquals(Money.ofMinor(2000, "USD"), TimelineProjector.pendingAmount(expense, Set.of(), "payer"));
+        assertEquals(Money.ofMinor(1000, "USD"), TimelineProjector.pendingAmount(expense, Set.of("a"), "payer"));
+    }
+
+    @Test
+    void participantSeesOnlyTheirOwnUnsettledShare() {
+        Expense expense = expense();
+
+        assertEquals(Money.ofMinor(1000, "USD"), TimelineProjector.pendingAmount(expense, Set.of(), "a"));
+        assertTrue(TimelineProjector.pendingAmount(expense, Set.of("a"), "a").isZero());
+        assertTrue(TimelineProjector.pendingAmount(expense, Set.of(), "stranger").isZero());
+    }
+
+    private static Expense expense() {
+        Expense expense = new Expense();
+        expense.setCurrency("USD");
+        expense.setPaidBy("payer");
+        expense.setManualSplits(List.of(split("payer"), split("a"), split("b")));
+        return expense;
+    }
+
+    private static Expense.ManualSplit split(String userId) {
+        Expense.ManualSplit split = new Expense.ManualSplit();
+        split.setUserId(userId);
+        split.setAmount(new Decimal128(new BigDecimal("10.00")));
+        return split;
+    }
+}
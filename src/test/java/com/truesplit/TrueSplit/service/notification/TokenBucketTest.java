@@ -0,0 +1,52 @@
+package com.truesplit.TrueSplit.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket(10, 2, now::get);
+
+    @Test
+    void allowsABurstUpToCapacity() {
+        assertEquals(10, bucket.acquireUpTo(50));
+        assertEquals(0, bucket.acquireUpTo(1));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        bucket.acquireUpTo(10);
+
+        now.addAndGet(1_750_000_000L);
+        assertEquals(3, bucket.acquireUpTo(10));
+
+        // The half permit left over carries into the next refill
+        now.addAndGet(250_000_000L);
+        assertEquals(1, bucket.acquireUpTo(10));
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        now.addAndGet(3_600_000_000_000L);
+        assertEquals(10, bucket.acquireUpTo(100));
+    }
+
+    @Test
+    void releasedPermitsCanBeTakenAgainUpToCapacity() {
+        assertEquals(10, bucket.acquireUpTo(10));
+        bucket.release(7);
+        assertEquals(7, bucket.acquireUpTo(10));
+
+        bucket.release(50);
+        assertEquals(10, bucket.acquireUpTo(50));
+    }
+
+    @Test
+    void rejectsANonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
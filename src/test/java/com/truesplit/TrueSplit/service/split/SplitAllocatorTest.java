@@ -0,0 +1,177 @@
+package com.truesplit.TrueSplit.service.split;
+
+import com.truesplit.TrueSplit.dto.request.ManualSplitEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitAllocatorTest {
+
+    private static final int ROUNDS = 20_000;
+
+    private final List<SplitStrategy> weighted = List.of(new PercentageSplitStrategy(), new SharesSplitStrategy(),
+            new ItemizedSplitStrategy());
+    private final SplitCalculator calculator = new SplitCalculator(List.of(new EqualSplitStrategy(),
+            new ManualSplitStrategy(), new PercentageSplitStrategy(), new SharesSplitStrategy(),
+            new ItemizedSplitStrategy()));
+
+    @Test
+    void everyStrategyAddsUpToTheTotalExactly() {
+        Random random = new Random(42);
+        for (int round = 0; round < ROUNDS; round++) {
+            int n = 1 + random.nextInt(50);
+            long total = random.nextInt(10) == 0 ? 1 + random.nextInt(n) : 1 + random.nextInt(10_000_000);
+            long[] inputs = new long[n];
+            long[] out = new long[n];
+            long[] scratch = new long[n];
+
+            new EqualSplitStrategy().split(total, inputs, out, scratch);
+            assertExact(total, out);
+
+            SplitStrategy strategy = weighted.get(random.nextInt(weighted.size()));
+            fillInputs(strategy, total, inputs, random);
+            strategy.split(total, inputs, out, scratch);
+            assertExact(total, out);
+            for (int i = 0; i < n; i++) {
+                if (inputs[i] == 0) {
+                    assertEquals(0, out[i], strategy.type() + " gave a share to a zero input");
+                }
+            }
+        }
+    }
+
+    @Test
+    void weightedSharesStayWithinOneUnitOfTheExactQuota() {
+        Random random = new Random(7);
+        SharesSplitStrategy shares = new SharesSplitStrategy();
+        for (int round = 0; round < ROUNDS; round++) {
+            int n = 1 + random.nextInt(20);
+            long total = random.nextInt(1_000_000);
+            long[] inputs = new long[n];
+            long[] out = new long[n];
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                inputs[i] = 1 + random.nextInt(9);
+                sum += inputs[i];
+            }
+            shares.split(total, inputs, out, new long[n]);
+            for (int i = 0; i < n; i++) {
+                double quota = (double) total * inputs[i] / sum;
+                assertTrue(Math.abs(out[i] - quota) < 1.0, "share " + out[i] + " vs quota " + quota);
+            }
+        }
+    }
+
+    @Test
+    void itemizedSpreadsTaxAndTipByItemSubtotal() {
+        long[] out = calculator.split("ITEMIZED", 1_100, "USD", List.of("a", "b"),
+                List.of(items("a", 6.0), items("b", 3.0, 1.0)));
+
+        assertArrayEquals(new long[]{660, 440}, out);
+    }
+
+    @Test
+    void percentagesMustCoverTheWholeTotal() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.split("PERCENTAGE", 1_000, "USD",
+                List.of("a", "b"), List.of(percentage("a", 60.0), percentage("b", 30.0))));
+
+        long[] out = calculator.split("PERCENTAGE", 1_000, "USD", List.of("a", "b", "c"),
+                List.of(percentage("a", 33.33), percentage("b", 33.33), percentage("c", 33.34)));
+        assertExact(1_000, out);
+    }
+
+    @Test
+    void largeSharesAndTotalsAllocateWithoutOverflow() {
+        ManualSplitEntry a = new ManualSplitEntry();
+        a.setUserId("a");
+        a.setShares(Integer.MAX_VALUE);
+        ManualSplitEntry b = new ManualSplitEntry();
+        b.setUserId("b");
+        b.setShares(Integer.MAX_VALUE - 1);
+        long total = Long.MAX_VALUE / 2;
+
+        long[] out = calculator.split("SHARES", total, "USD", List.of("a", "b"), List.of(a, b));
+
+        assertExact(total, out);
+        assertTrue(out[0] >= out[1]);
+    }
+
+    @Test
+    void overflowingItemsAreRejectedAsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.split("ITEMIZED", 1_000, "USD",
+                List.of("a", "b"), List.of(items("a", 9e16), items("b", 9e16))));
+        assertThrows(IllegalArgumentException.class, () -> calculator.split("ITEMIZED", 1_000, "USD",
+                List.of("a"), List.of(items("a", 1e300))));
+    }
+
+    @Test
+    void manualAmountsMustMatchAndNameParticipants() {
+        ManualSplitEntry a = new ManualSplitEntry();
+        a.setUserId("a");
+        a.setAmount(4.0);
+        ManualSplitEntry outsider = new ManualSplitEntry();
+        outsider.setUserId("z");
+        outsider.setAmount(6.0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.split("MANUAL", 1_000, "USD", List.of("a", "b"), List.of(a)));
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.split("MANUAL", 1_000, "USD", List.of("a", "b"), List.of(a, outsider)));
+    }
+
+    private static void fillInputs(SplitStrategy strategy, long total, long[] inputs, Random random) {
+        int n = inputs.length;
+        switch (strategy.type()) {
+            case "PERCENTAGE" -> {
+                long left = PercentageSplitStrategy.WHOLE;
+                for (int i = 0; i < n - 1; i++) {
+                    inputs[i] = left == 0 ? 0 : random.nextLong(left + 1);
+                    left -= inputs[i];
+                }
+                inputs[n - 1] = left;
+            }
+            case "SHARES" -> {
+                for (int i = 0; i < n; i++) {
+                    inputs[i] = random.nextInt(4);
+                }
+                inputs[random.nextInt(n)] += 1;
+            }
+            default -> {
+                // Items cover between 1 minor unit and all of the total; the rest is tax and tip
+                long items = Math.max(1, total - random.nextLong(total / 4 + 1));
+                for (int i = 0; i < n - 1; i++) {
+                    inputs[i] = random.nextLong(items / n + 1);
+                    items -= inputs[i];
+                }
+                inputs[n - 1] = items;
+            }
+        }
+    }
+
+    private static void assertExact(long total, long[] out) {
+        long sum = 0;
+        for (long part : out) {
+            assertTrue(part >= 0);
+            sum += part;
+        }
+        assertEquals(total, sum);
+    }
+
+    private static ManualSplitEntry items(String userId, Double... amounts) {
+        ManualSplitEntry entry = new ManualSplitEntry();
+        entry.setUserId(userId);
+        entry.setItems(new ArrayList<>(List.of(amounts)));
+        return entry;
+    }
+
+    private static ManualSplitEntry percentage(String userId, double value) {
+        ManualSplitEntry entry = new ManualSplitEntry();
+        entry.setUserId(userId);
+        entry.setPercentage(value);
+        return entry;
+    }
+}